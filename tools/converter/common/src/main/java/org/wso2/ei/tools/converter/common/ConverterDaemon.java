@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.ei.tools.converter.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.ei.tools.converter.common.ConverterEngine.ConversionResult;
+import org.wso2.ei.tools.converter.common.ConverterEngine.Converter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+/**
+ * {@code ConverterDaemon} keeps a converter running in a warm JVM, so that IDEs and build tools can convert files
+ * without paying JVM startup and Ballerina scope population per file. It listens on a loopback port, started with a
+ * --daemon=PORT program argument, and handles a line based UTF-8 protocol. Each request line is one of
+ * <pre>
+ * CONVERT TAB token TAB source file path [TAB ballerina file path]
+ * SHUTDOWN TAB token
+ * </pre>
+ * where the token is the content of the token file written at startup, readable only by the user running the daemon,
+ * and the ballerina file defaults to a .bal file of the same name next to the source file. Ballerina files must be in
+ * the directory of the source file, or in the output root given with a --daemon-output-root=DIR program argument.
+ * Each request is answered with a line
+ * <pre>
+ * OK TAB ballerina file path TAB conversion time in ms
+ * ERROR TAB source file path TAB error message
+ * </pre>
+ * A connection may send any number of requests, which are answered in order. Connections are read by their own
+ * threads, and only conversions run in the pool of the given parallelism, so idle connections do not hold it.
+ */
+public class ConverterDaemon {
+
+    private static Logger logger = LoggerFactory.getLogger(ConverterDaemon.class);
+
+    private static final String DAEMON_ARG = "--daemon=";
+    private static final String OUTPUT_ROOT_ARG = "--daemon-output-root=";
+    private static final String TOKEN_FILE_ARG = "--daemon-token-file=";
+    private static final String TOKEN_FILE_DIR = ".ei-converter";
+    private static final String FIELD_SEPARATOR = "\t";
+    private static final String CONVERT_REQUEST = "CONVERT";
+    private static final String SHUTDOWN_REQUEST = "SHUTDOWN";
+    private static final String OK_RESPONSE = "OK";
+    private static final String ERROR_RESPONSE = "ERROR";
+    private static final int TOKEN_BYTES = 32;
+
+    private final BiFunction<File, String, ConversionResult> conversion;
+    private final int parallelism;
+    private final Path outputRoot;
+    private final String token;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private volatile ServerSocket serverSocket;
+
+    /**
+     * Create a daemon of a converter.
+     *
+     * @param converter   converter of a source file to a ballerina model
+     * @param parallelism number of files converted concurrently
+     * @param outputRoot  directory allowed to contain ballerina files of any source file, null to only allow ballerina
+     *                    files in the directory of their source file
+     */
+    public ConverterDaemon(Converter converter, int parallelism, Path outputRoot) {
+        this((sourceFile, destinationFile) -> ConverterEngine.getInstance().convert(sourceFile, destinationFile,
+                converter), parallelism, outputRoot);
+    }
+
+    /**
+     * Create a daemon running the given conversion of a source file to a ballerina file.
+     */
+    ConverterDaemon(BiFunction<File, String, ConversionResult> conversion, int parallelism, Path outputRoot) {
+        this.conversion = conversion;
+        this.parallelism = parallelism;
+        this.outputRoot = outputRoot == null ? null : outputRoot.toAbsolutePath().normalize();
+        this.token = createToken();
+    }
+
+    /**
+     * Get the port of the daemon mode, given as a --daemon=PORT program argument. Port 0 listens on any free port,
+     * which is logged.
+     *
+     * @param args program arguments
+     * @return port, -1 if the converter should not run as a daemon
+     */
+    public static int getPort(String... args) {
+        String port = getArgument(DAEMON_ARG, args);
+        if (port == null) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(port);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid daemon port: " + port, e);
+        }
+    }
+
+    /**
+     * Get the output root of the daemon mode, given as a --daemon-output-root=DIR program argument.
+     *
+     * @param args program arguments
+     * @return output root, null if not given
+     */
+    public static Path getOutputRoot(String... args) {
+        String outputRoot = getArgument(OUTPUT_ROOT_ARG, args);
+        return outputRoot == null ? null : Paths.get(outputRoot);
+    }
+
+    /**
+     * Get the token file of the daemon mode, given as a --daemon-token-file=PATH program argument. Defaults to
+     * daemon-PORT.token in the .ei-converter directory of the user home.
+     *
+     * @param port port the daemon listens on
+     * @param args program arguments
+     * @return token file
+     */
+    public static Path getTokenFile(int port, String... args) {
+        String tokenFile = getArgument(TOKEN_FILE_ARG, args);
+        return tokenFile != null ? Paths.get(tokenFile) :
+                Paths.get(System.getProperty("user.home"), TOKEN_FILE_DIR, "daemon-" + port + ".token");
+    }
+
+    private static String getArgument(String prefix, String... args) {
+        for (String arg : args) {
+            if (arg != null && arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return null;
+    }
+
+    private static String createToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(bytes);
+        StringBuilder token = new StringBuilder();
+        for (byte b : bytes) {
+            token.append(String.format("%02x", b));
+        }
+        return token.toString();
+    }
+
+    /**
+     * Listen on a loopback port and serve conversion requests until a shutdown request is received or
+     * {@link #shutdown()} is called. The token clients must send is written to the token file, which is deleted when
+     * the daemon stops.
+     *
+     * @param port      port to listen on
+     * @param tokenFile file to write the token, see {@link #getTokenFile(int, String...)}
+     * @throws IOException if the port cannot be opened or the token file cannot be written
+     */
+    public void serve(int port, Path tokenFile) throws IOException {
+        // Load the Ballerina builtin packages before the first request.
+        ConverterEngine.getInstance();
+        ExecutorService conversionExecutor = Executors.newFixedThreadPool(parallelism);
+        ExecutorService connectionExecutor = Executors.newCachedThreadPool();
+        try (ServerSocket socket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+            serverSocket = socket;
+            writeToken(tokenFile);
+            logger.info("Converter daemon listening on port " + socket.getLocalPort() + ", token written to "
+                    + tokenFile);
+            while (!socket.isClosed()) {
+                Socket connection;
+                try {
+                    connection = socket.accept();
+                } catch (SocketException e) {
+                    // Closed by a shutdown.
+                    break;
+                }
+                connectionExecutor.execute(() -> serveConnection(connection, conversionExecutor));
+            }
+        } finally {
+            // Reading connections is not interruptible, so they are closed.
+            for (Socket connection : connections) {
+                closeConnection(connection);
+            }
+            connectionExecutor.shutdownNow();
+            conversionExecutor.shutdownNow();
+            Files.deleteIfExists(tokenFile);
+            logger.info("Converter daemon stopped");
+        }
+    }
+
+    /**
+     * Stop accepting connections. Conversions in progress are interrupted.
+     *
+     * @throws IOException if closing the listening socket fails
+     */
+    public void shutdown() throws IOException {
+        ServerSocket socket = serverSocket;
+        if (socket != null) {
+            socket.close();
+        }
+    }
+
+    /**
+     * Get the port the daemon listens on.
+     *
+     * @return port, -1 if the daemon is not listening yet
+     */
+    public int getLocalPort() {
+        ServerSocket socket = serverSocket;
+        return socket == null ? -1 : socket.getLocalPort();
+    }
+
+    /**
+     * Write the token to a file readable only by the owner, where the file system supports POSIX permissions.
+     */
+    private void writeToken(Path tokenFile) throws IOException {
+        Path tokenDirectory = tokenFile.toAbsolutePath().getParent();
+        Files.createDirectories(tokenDirectory);
+        Files.deleteIfExists(tokenFile);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(tokenFile, PosixFilePermissions.asFileAttribute(
+                    PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(tokenFile);
+        }
+        Files.write(tokenFile, token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void closeConnection(Socket connection) {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            logger.warn("Error occurred when closing a converter daemon connection", e);
+        }
+    }
+
+    private void serveConnection(Socket socket, ExecutorService conversionExecutor) {
+        connections.add(socket);
+        if (serverSocket.isClosed()) {
+            // Accepted while shutting down, after the open connections were closed.
+            connections.remove(socket);
+            closeConnection(socket);
+            return;
+        }
+        try (Socket connection = socket;
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+                Writer writer = new BufferedWriter(
+                        new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+            String request;
+            while ((request = reader.readLine()) != null) {
+                if (request.trim().isEmpty()) {
+                    continue;
+                }
+                String response = handle(request, conversionExecutor);
+                writer.write(response);
+                writer.write('\n');
+                writer.flush();
+                if (request.startsWith(SHUTDOWN_REQUEST) && response.equals(OK_RESPONSE)) {
+                    // Answered before closing, as a shutdown closes all connections.
+                    shutdown();
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            if (!socket.isClosed()) {
+                logger.warn("Error occurred when serving a converter daemon connection", e);
+            }
+        } catch (InterruptedException e) {
+            // Interrupted by a shutdown.
+            Thread.currentThread().interrupt();
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * Handle a request.
+     *
+     * @param request            request line
+     * @param conversionExecutor pool running conversions
+     * @return response line, without the line terminator
+     */
+    private String handle(String request, ExecutorService conversionExecutor) throws IOException,
+            InterruptedException {
+        String[] fields = request.split(FIELD_SEPARATOR);
+        if (fields.length < 2 || !isValidToken(fields[1].trim())) {
+            logger.warn("Rejected a converter daemon request without a valid token");
+            return error("", "invalid token");
+        }
+        switch (fields[0].trim()) {
+        case SHUTDOWN_REQUEST:
+            logger.info("Converter daemon shutdown requested");
+            return OK_RESPONSE;
+        case CONVERT_REQUEST:
+            if (fields.length < 3 || fields[2].trim().isEmpty()) {
+                return error("", "source file is not given");
+            }
+            File sourceFile = new File(fields[2].trim()).getAbsoluteFile();
+            String destinationFile = fields.length > 3 && !fields[3].trim().isEmpty() ? fields[3].trim() :
+                    new File(sourceFile.getParentFile(), ConverterEngine.getBalFileName(sourceFile)).getPath();
+            if (!isAllowedDestination(sourceFile, destinationFile)) {
+                logger.warn("Rejected converting " + sourceFile + " to " + destinationFile);
+                return error(sourceFile.getPath(), "ballerina file must be in the directory of the source file"
+                        + (outputRoot != null ? " or in " + outputRoot : ""));
+            }
+            Future<ConversionResult> future = conversionExecutor.submit(
+                    () -> conversion.apply(sourceFile, destinationFile));
+            try {
+                return getResponse(sourceFile, destinationFile, future.get());
+            } catch (ExecutionException e) {
+                return error(sourceFile.getPath(), String.valueOf(e.getCause()));
+            }
+        default:
+            return error("", "unknown request: " + fields[0].trim());
+        }
+    }
+
+    private boolean isValidToken(String requestToken) {
+        // Compared in constant time, so that the token cannot be guessed from response times.
+        return MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                requestToken.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Check whether a ballerina file is in the directory of its source file, or in the output root. Symbolic links of
+     * existing directories are resolved, so that a link does not lead out of them.
+     */
+    private boolean isAllowedDestination(File sourceFile, String destinationFile) throws IOException {
+        Path destination = resolveExisting(Paths.get(destinationFile).toAbsolutePath().normalize());
+        Path sourceDirectory = resolveExisting(sourceFile.toPath().getParent().normalize());
+        return destination.getParent().startsWith(sourceDirectory)
+                || outputRoot != null && destination.startsWith(resolveExisting(outputRoot));
+    }
+
+    /**
+     * Resolve symbolic links of the longest existing parent of a path.
+     */
+    private static Path resolveExisting(Path path) throws IOException {
+        Path existing = path;
+        while (existing != null && !Files.exists(existing)) {
+            existing = existing.getParent();
+        }
+        return existing == null ? path : existing.toRealPath().resolve(existing.relativize(path));
+    }
+
+    private String getResponse(File sourceFile, String destinationFile, ConversionResult result) {
+        if (result.isSuccessful()) {
+            logger.info(destinationFile + " created successfully in " + result.getTimeMillis() + " ms.");
+            return OK_RESPONSE + FIELD_SEPARATOR + destinationFile + FIELD_SEPARATOR + result.getTimeMillis();
+        }
+        logger.error("Unable to convert " + sourceFile.getPath(), result.getError());
+        return error(sourceFile.getPath(), String.valueOf(result.getError().getMessage()));
+    }
+
+    private static String error(String sourceFile, String message) {
+        // Messages must not break the line based protocol.
+        return ERROR_RESPONSE + FIELD_SEPARATOR + sourceFile + FIELD_SEPARATOR + message.replaceAll("\\s+", " ");
+    }
+}
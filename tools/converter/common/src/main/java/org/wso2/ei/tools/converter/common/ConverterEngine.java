@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.ei.tools.converter.common;
+
+import org.ballerinalang.model.BLangPackage;
+import org.ballerinalang.model.BLangProgram;
+import org.ballerinalang.model.BallerinaFile;
+import org.ballerinalang.model.GlobalScope;
+import org.ballerinalang.model.NativeScope;
+import org.ballerinalang.model.builder.BLangModelBuilder;
+import org.ballerinalang.util.program.BLangPackages;
+import org.ballerinalang.util.program.BLangPrograms;
+import org.ballerinalang.util.repository.PackageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.ei.tools.converter.common.generator.BallerinaSourceGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * {@code ConverterEngine} populates the Ballerina global and native scopes once per converting thread, and the builtin
+ * package names once per JVM, and reuses them across conversions. Ballerina scopes are mutable symbol tables which are
+ * not thread safe, so concurrent model builders never share them, while each model builder gets its own program scope
+ * and package. A single engine serves any number of conversions, including concurrent ones.
+ */
+public class ConverterEngine {
+
+    private static Logger logger = LoggerFactory.getLogger(ConverterEngine.class);
+
+    private static final String BAL_EXTENSION = ".bal";
+    private static final PackageRepository PACKAGE_REPOSITORY = new PackageRepository() {
+        @Override
+        public PackageSource loadPackage(Path path) {
+            return null;
+        }
+
+        @Override
+        public PackageSource loadFile(Path path) {
+            return null;
+        }
+    };
+
+    private final ThreadLocal<Scopes> scopes = ThreadLocal.withInitial(Scopes::new);
+    private final Map<String, String> builtinPackageMap;
+
+    private ConverterEngine() {
+        long startTime = System.currentTimeMillis();
+        Map<String, String> packageMap = new HashMap<>();
+        for (String aPackage : BLangPackages.getBuiltinPackageNames()) {
+            String[] bits = aPackage.split("\\.");
+            packageMap.put(bits[bits.length - 1], aPackage);
+        }
+        builtinPackageMap = Collections.unmodifiableMap(packageMap);
+        logger.debug("Ballerina builtin packages loaded in " + (System.currentTimeMillis() - startTime) + " ms");
+    }
+
+    /**
+     * Get the engine, loading the Ballerina builtin package names on first use.
+     *
+     * @return converter engine
+     */
+    public static ConverterEngine getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    /**
+     * Create a model builder of a new service program, backed by the global and native scopes of the calling thread.
+     * A model builder must only be used for a single ballerina file, in the thread which created it.
+     *
+     * @return model builder
+     */
+    public BLangModelBuilder createModelBuilder() {
+        Scopes threadScopes = scopes.get();
+        BLangProgram programScope = new BLangProgram(threadScopes.globalScope, threadScopes.nativeScope,
+                BLangProgram.Category.SERVICE_PROGRAM);
+        BLangPackage bLangPackage = new BLangPackage(".", PACKAGE_REPOSITORY, programScope);
+        BLangPackage.PackageBuilder packageBuilder = new BLangPackage.PackageBuilder(bLangPackage);
+        return new BLangModelBuilder(packageBuilder, ".");
+    }
+
+    /**
+     * Get builtin package paths by package name, eg: http -&gt; ballerina.net.http.
+     *
+     * @return unmodifiable map of builtin package paths
+     */
+    public Map<String, String> getBuiltinPackageMap() {
+        return builtinPackageMap;
+    }
+
+    /**
+     * Convert source files to ballerina files of the same name, in the destination directory. Files are converted in
+     * parallel, and a failure of a file does not stop the conversion of the others.
+     *
+     * @param sourceFiles    files to convert
+     * @param destinationDir directory to write the ballerina files
+     * @param converter      converter of a source file to a ballerina model, called concurrently
+     * @param parallelism    number of threads converting files
+     * @return results of the files, in the order of the source files
+     * @throws IOException if more than one source file would be converted to the same ballerina file
+     */
+    public List<ConversionResult> convertAll(List<File> sourceFiles, String destinationDir, Converter converter,
+            int parallelism) throws IOException {
+        checkBalFileNames(sourceFiles);
+        ExecutorService executorService = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<ConversionResult>> futures = new ArrayList<>();
+            for (File sourceFile : sourceFiles) {
+                futures.add(executorService.submit(() -> convert(sourceFile,
+                        destinationDir + File.separator + getBalFileName(sourceFile), converter)));
+            }
+            List<ConversionResult> results = new ArrayList<>();
+            for (Future<ConversionResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while converting files", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error occurred when converting files", e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Convert a source file to a ballerina file. Errors are returned in the result, not thrown.
+     *
+     * @param sourceFile      file to convert
+     * @param destinationFile path of the ballerina file to write
+     * @param converter       converter of a source file to a ballerina model
+     * @return result of the file
+     */
+    public ConversionResult convert(File sourceFile, String destinationFile, Converter converter) {
+        long startTime = System.currentTimeMillis();
+        Exception error = null;
+        try {
+            new BallerinaSourceGenerator().generate(converter.convert(sourceFile), destinationFile);
+        } catch (Exception e) {
+            // Includes runtime errors of the ballerina model builder for unsupported configurations.
+            error = e;
+        }
+        return new ConversionResult(sourceFile, new File(destinationFile).getName(), error,
+                System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Log results of a batch conversion, with a summary line.
+     *
+     * @param results results of {@link #convertAll(List, String, Converter, int)}
+     * @return number of files which failed to convert
+     */
+    public static int logResults(List<ConversionResult> results) {
+        int failures = 0;
+        for (ConversionResult result : results) {
+            if (result.isSuccessful()) {
+                logger.info(result.getBalFileName() + " created successfully in " + result.getTimeMillis() + " ms.");
+            } else {
+                failures++;
+                logger.error("Unable to convert " + result.getSourceFile().getPath() + " in "
+                        + result.getTimeMillis() + " ms.", result.getError());
+            }
+        }
+        logger.info("Converted " + (results.size() - failures) + " of " + results.size() + " files.");
+        return failures;
+    }
+
+    /**
+     * Check that source files are converted to different ballerina files in a single destination directory, as files
+     * of the same name in different source directories are converted to the same file name. Names are compared
+     * ignoring case, as files differing only in case are the same file on some file systems.
+     *
+     * @param sourceFiles files to convert
+     * @throws IOException if more than one source file would be converted to the same ballerina file
+     */
+    public static void checkBalFileNames(List<File> sourceFiles) throws IOException {
+        Map<String, File> balFileNames = new HashMap<>();
+        for (File sourceFile : sourceFiles) {
+            String balFileName = getBalFileName(sourceFile);
+            File otherSourceFile = balFileNames.put(balFileName.toLowerCase(Locale.ROOT), sourceFile);
+            if (otherSourceFile != null) {
+                throw new IOException("Both " + otherSourceFile.getPath() + " and " + sourceFile.getPath()
+                        + " would be converted to " + balFileName + ", rename one of them");
+            }
+        }
+    }
+
+    /**
+     * Get name of the ballerina file of a source file.
+     *
+     * @param sourceFile source file
+     * @return file name, with the last extension replaced by .bal
+     */
+    public static String getBalFileName(File sourceFile) {
+        String fileName = sourceFile.getName();
+        int extensionIndex = fileName.lastIndexOf('.');
+        return (extensionIndex <= 0 ? fileName : fileName.substring(0, extensionIndex)) + BAL_EXTENSION;
+    }
+
+    /**
+     * Converter of a source file, such as a Mule or data service configuration, to a ballerina model.
+     */
+    @FunctionalInterface
+    public interface Converter {
+
+        /**
+         * Convert a source file.
+         *
+         * @param sourceFile source file
+         * @return ballerina model of the source file
+         * @throws IOException if reading the source file fails
+         */
+        BallerinaFile convert(File sourceFile) throws IOException;
+    }
+
+    /**
+     * Result of converting a source file in a batch.
+     */
+    public static class ConversionResult {
+
+        private final File sourceFile;
+        private final String balFileName;
+        private final Exception error;
+        private final long timeMillis;
+
+        ConversionResult(File sourceFile, String balFileName, Exception error, long timeMillis) {
+            this.sourceFile = sourceFile;
+            this.balFileName = balFileName;
+            this.error = error;
+            this.timeMillis = timeMillis;
+        }
+
+        public File getSourceFile() {
+            return sourceFile;
+        }
+
+        public String getBalFileName() {
+            return balFileName;
+        }
+
+        public boolean isSuccessful() {
+            return error == null;
+        }
+
+        /**
+         * Get the error of a failed conversion.
+         *
+         * @return error, null if the file was converted
+         */
+        public Exception getError() {
+            return error;
+        }
+
+        public long getTimeMillis() {
+            return timeMillis;
+        }
+    }
+
+    /**
+     * Global and native scopes of a converting thread.
+     */
+    private static class Scopes {
+
+        private final GlobalScope globalScope;
+        private final NativeScope nativeScope;
+
+        Scopes() {
+            long startTime = System.currentTimeMillis();
+            globalScope = BLangPrograms.populateGlobalScope();
+            nativeScope = BLangPrograms.populateNativeScope();
+            logger.debug("Ballerina scopes populated in " + (System.currentTimeMillis() - startTime) + " ms");
+        }
+    }
+
+    /**
+     * Holder of the engine, initialized by the JVM on first access.
+     */
+    private static class InstanceHolder {
+        private static final ConverterEngine INSTANCE = new ConverterEngine();
+    }
+}
@@ -18,6 +18,9 @@
 
 package org.wso2.ei.tools.converter.common;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
@@ -25,21 +28,38 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Class containing util functions
  */
 public class Utils {
 
+    private static Logger logger = LoggerFactory.getLogger(Utils.class);
+
     private static final String GENERATED_BALLERINA_SOURCE = "generated-ballerina-source";
+    private static final String PARALLELISM_ARG = "--parallelism=";
+    private static final String OPTION_PREFIX = "--";
 
     public static void writeToBalFile(String filePath, String content) throws IOException {
-        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.UTF_8)) {
+        try (BufferedWriter writer = newBalFileWriter(filePath)) {
             writer.write(content);
             writer.flush();
         }
     }
 
+    /**
+     * Open a buffered UTF-8 writer of a ballerina source file.
+     *
+     * @param filePath path of the ballerina source file
+     * @return writer of the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static BufferedWriter newBalFileWriter(String filePath) throws IOException {
+        return Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.UTF_8);
+    }
+
     public static Path getPath(File source, String destination) {
         Path path;
         if (destination == null || destination.isEmpty()) {
@@ -53,4 +73,45 @@ public class Utils {
         }
         return path;
     }
+
+    /**
+     * Get the number of threads converting the files of a folder, given as an optional --parallelism=N program
+     * argument. Defaults to the number of available processors.
+     *
+     * @param args program arguments
+     * @return number of threads
+     */
+    public static int getParallelism(String... args) {
+        for (String arg : args) {
+            if (arg != null && arg.startsWith(PARALLELISM_ARG)) {
+                try {
+                    int parallelism = Integer.parseInt(arg.substring(PARALLELISM_ARG.length()));
+                    if (parallelism > 0) {
+                        return parallelism;
+                    }
+                } catch (NumberFormatException e) {
+                    // Reported below.
+                }
+                logger.warn("Ignoring invalid parallelism: " + arg);
+            }
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Get the program arguments which are not options, such as the source and the destination. Options start with
+     * "--" and can be given before, between or after them.
+     *
+     * @param args program arguments
+     * @return arguments other than options, in the given order
+     */
+    public static List<String> getPositionalArgs(String... args) {
+        List<String> positionalArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg != null && !arg.startsWith(OPTION_PREFIX)) {
+                positionalArgs.add(arg);
+            }
+        }
+        return positionalArgs;
+    }
 }
@@ -18,19 +18,11 @@
 
 package org.wso2.ei.tools.converter.common.builder;
 
-import org.ballerinalang.model.BLangPackage;
-import org.ballerinalang.model.BLangProgram;
 import org.ballerinalang.model.BallerinaFile;
-import org.ballerinalang.model.GlobalScope;
-import org.ballerinalang.model.NativeScope;
 import org.ballerinalang.model.builder.BLangModelBuilder;
 import org.ballerinalang.model.types.SimpleTypeName;
-import org.ballerinalang.util.program.BLangPackages;
-import org.ballerinalang.util.program.BLangPrograms;
-import org.ballerinalang.util.repository.PackageRepository;
+import org.wso2.ei.tools.converter.common.ConverterEngine;
 
-import java.nio.file.Path;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Stack;
 
@@ -39,42 +31,17 @@ import java.util.Stack;
  */
 public class BallerinaASTModelBuilder {
 
-    private static final PackageRepository PACKAGE_REPOSITORY = new PackageRepository() {
-        @Override
-        public PackageSource loadPackage(Path path) {
-            return null;
-        }
-
-        @Override
-        public PackageSource loadFile(Path path) {
-            return null;
-        }
-    };
     private boolean processingActionInvocationStmt = false;
     private Stack<BLangModelBuilder.NameReference> nameReferenceStack = new Stack<>();
     private Stack<SimpleTypeName> typeNameStack = new Stack<>();
-    private BLangProgram programScope;
-    private BLangPackage bLangPackage;
     private BLangModelBuilder modelBuilder;
-    private Map<String, String> ballerinaPackageMap = new HashMap<String, String>();
+    private Map<String, String> ballerinaPackageMap;
     //  private boolean isWorkerStarted = false;
 
     public BallerinaASTModelBuilder() {
-
-        GlobalScope globalScope = BLangPrograms.populateGlobalScope();
-        NativeScope nativeScope = BLangPrograms.populateNativeScope();
-
-        programScope = new BLangProgram(globalScope, nativeScope, BLangProgram.Category.SERVICE_PROGRAM);
-        bLangPackage = new BLangPackage(".", PACKAGE_REPOSITORY, programScope);
-        BLangPackage.PackageBuilder packageBuilder = new BLangPackage.PackageBuilder(bLangPackage);
-        modelBuilder = new BLangModelBuilder(packageBuilder, ".");
-
-        String[] packages = BLangPackages.getBuiltinPackageNames();
-        for (String aPackage : packages) {
-            String[] bits = aPackage.split("\\.");
-            String pkgName = bits[bits.length - 1];
-            ballerinaPackageMap.put(pkgName, aPackage);
-        }
+        ConverterEngine converterEngine = ConverterEngine.getInstance();
+        modelBuilder = converterEngine.createModelBuilder();
+        ballerinaPackageMap = converterEngine.getBuiltinPackageMap();
     }
 
     public void addImportPackage(String pkgPath, String asPkgName) {
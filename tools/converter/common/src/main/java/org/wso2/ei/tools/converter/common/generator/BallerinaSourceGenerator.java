@@ -22,18 +22,45 @@ import org.ballerinalang.model.BallerinaFile;
 import org.wso2.ei.tools.converter.common.Utils;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 /**
  * {@link BallerinaSourceGenerator} generates ballerina source from ballerina model
  */
 public class BallerinaSourceGenerator {
 
-    public void generate(BallerinaFile ballerinaFile, String targetFilePath) throws IOException {
-
-        CodeGenVisitor codeGenVisitor = new CodeGenVisitor();
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
 
-        ballerinaFile.accept(codeGenVisitor);
-        Utils.writeToBalFile(targetFilePath, codeGenVisitor.getBallerinaSourceStr());
+    /**
+     * Generate ballerina source of a ballerina model, streaming it to a temporary file next to the target file as it
+     * is generated. The temporary file replaces the target file only when generation completes, so a failed
+     * generation never leaves a truncated source file. Each generation has its own uniquely named temporary file, so
+     * concurrent generations of the same target file do not write to the same temporary file.
+     *
+     * @param ballerinaFile  ballerina model
+     * @param targetFilePath path of the ballerina source file to write
+     * @throws IOException if writing the source file fails
+     */
+    public void generate(BallerinaFile ballerinaFile, String targetFilePath) throws IOException {
+        Path targetFile = Paths.get(targetFilePath).toAbsolutePath();
+        Path tempFile = Files.createTempFile(targetFile.getParent(), targetFile.getFileName().toString(),
+                TEMP_FILE_SUFFIX);
+        try {
+            try (Writer writer = Utils.newBalFileWriter(tempFile.toString())) {
+                CodeGenVisitor codeGenVisitor = new CodeGenVisitor(writer);
+                ballerinaFile.accept(codeGenVisitor);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
         /*Service targetService = null;
         if (ballerinaFile.getCompilationUnits().length > 0) {
             targetService = (ballerinaFile.getCompilationUnits()[0] instanceof Service) ?
@@ -110,20 +110,49 @@ import org.ballerinalang.model.values.BString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
  * @{@link CodeGenVisitor} implements @{@link NodeVisitor} to traverse through Ballerina model of the integration flow
- * and serialize to ballerina source
+ * and serialize to ballerina source. The source is appended to the given sink as it is generated, so it can be
+ * written to a file without keeping the whole source in memory.
  */
 public class CodeGenVisitor implements NodeVisitor {
 
     private static Logger logger = LoggerFactory.getLogger(CodeGenVisitor.class);
 
-    private StringBuilder balSourceBuilder = new StringBuilder();
+    // Indentations of the usual indent depths, shared by all visitors.
+    private static final String[] INDENTATIONS = new String[16];
+
+    static {
+        INDENTATIONS[0] = "";
+        for (int i = 1; i < INDENTATIONS.length; i++) {
+            INDENTATIONS[i] = INDENTATIONS[i - 1] + Constants.TAB_STR;
+        }
+    }
+
+    private final Appendable balSource;
     private int indentDepth = 0;
-    private int previousIndentDepth = 0;
-    private String indentStr = "";
     private BLangProgram balProgram = null;
 
+    /**
+     * Create a visitor keeping the generated source in memory, to be read with {@link #getBallerinaSourceStr()}.
+     */
+    public CodeGenVisitor() {
+        this(new StringBuilder());
+    }
+
+    /**
+     * Create a visitor appending the generated source to a sink, such as a buffered file writer.
+     *
+     * @param balSource sink of the generated source. Errors of writing to it are thrown as
+     *                  {@link UncheckedIOException}
+     */
+    public CodeGenVisitor(Appendable balSource) {
+        this.balSource = balSource;
+    }
+
     @Override
     public void visit(BLangProgram bLangProgram) {
         logger.debug("Visit - BLangProgram");
@@ -207,7 +236,8 @@ public class CodeGenVisitor implements NodeVisitor {
         /**
          serviceDefinition : 'service' Identifier serviceBody;
          * */
-        appendToBalSource(getIndentationForCurrentLine() + Constants.SERVICE_STR + Constants.SPACE_STR +
+        appendIndentation();
+        appendToBalSource(Constants.SERVICE_STR + Constants.SPACE_STR +
                 service.getName() + Constants.SPACE_STR + Constants.STMTBLOCK_START_STR + Constants.NEWLINE_STR);
         ++indentDepth;
 
@@ -249,12 +279,13 @@ public class CodeGenVisitor implements NodeVisitor {
         //visit annotations
         AnnotationAttachment[] annotationAttachments = resource.getAnnotations();
         for (AnnotationAttachment annotationAttachment : annotationAttachments) {
-            appendToBalSource(getIndentationForCurrentLine());
+            appendIndentation();
             annotationAttachment.accept(this);
             appendToBalSource(Constants.NEWLINE_STR);
         }
 
-        appendToBalSource(getIndentationForCurrentLine() + Constants.RESOURCE_STR + Constants.SPACE_STR +
+        appendIndentation();
+        appendToBalSource(Constants.RESOURCE_STR + Constants.SPACE_STR +
                 resource.getIdentifier().getName() + Constants.SPACE_STR + Constants.PARENTHESES_START_STR);
 
         ParameterDef[] parameterDefs = resource.getParameterDefs();
@@ -292,7 +323,8 @@ public class CodeGenVisitor implements NodeVisitor {
 
         --indentDepth;
         //end of resource statements block
-        appendToBalSource(getIndentationForCurrentLine() + Constants.STMTBLOCK_END_STR + Constants.NEWLINE_STR);
+        appendIndentation();
+        appendToBalSource(Constants.STMTBLOCK_END_STR + Constants.NEWLINE_STR);
     }
 
     @Override
@@ -356,7 +388,8 @@ public class CodeGenVisitor implements NodeVisitor {
     @Override
     public void visit(Worker worker) {
         logger.debug("Visit - Worker");
-        appendToBalSource(getIndentationForCurrentLine() + Constants.WORKER_STR + Constants.SPACE_STR + worker.getName()
+        appendIndentation();
+        appendToBalSource(Constants.WORKER_STR + Constants.SPACE_STR + worker.getName()
                 + Constants.SPACE_STR +
                 Constants.STMTBLOCK_START_STR);
         ++indentDepth;
@@ -364,7 +397,8 @@ public class CodeGenVisitor implements NodeVisitor {
         BlockStmt blockStmt = worker.getCallableUnitBody();
         blockStmt.accept(this);
         --indentDepth;
-        appendToBalSource(getIndentationForCurrentLine() + Constants.STMTBLOCK_END_STR + Constants.NEWLINE_STR);
+        appendIndentation();
+        appendToBalSource(Constants.STMTBLOCK_END_STR + Constants.NEWLINE_STR);
     }
 
     @Override
@@ -404,7 +438,8 @@ public class CodeGenVisitor implements NodeVisitor {
          * fieldDefinition : typeName Identifier ('=' simpleLiteral)? ';';
          */
 
-        appendToBalSource(getIndentationForCurrentLine() + Constants.STRUCT_STR + Constants.SPACE_STR +
+        appendIndentation();
+        appendToBalSource(Constants.STRUCT_STR + Constants.SPACE_STR +
                 structDef.getName() + Constants.SPACE_STR + Constants.STMTBLOCK_START_STR + Constants.NEWLINE_STR);
         ++indentDepth;
         //process fieldDefinition
@@ -412,7 +447,8 @@ public class CodeGenVisitor implements NodeVisitor {
             variableDefStmt.accept(this);
         }
         --indentDepth;
-        appendToBalSource(getIndentationForCurrentLine() + Constants.STMTBLOCK_END_STR + Constants.NEWLINE_STR);
+        appendIndentation();
+        appendToBalSource(Constants.STMTBLOCK_END_STR + Constants.NEWLINE_STR);
     }
 
     @Override
@@ -436,7 +472,8 @@ public class CodeGenVisitor implements NodeVisitor {
         VariableDef variableDef = varDefStmt.getVariableDef();
         String varLHSDefStr = variableDef.getTypeName().toString() + Constants.SPACE_STR + variableDef.getSymbolName();
 
-        appendToBalSource(getIndentationForCurrentLine() + varLHSDefStr);
+        appendIndentation();
+        appendToBalSource(varLHSDefStr);
         if (varDefStmt.getRExpr() != null) {
             //have RHS expression eg: string str = <Some connectorInitExpression | actionInvocation | expression>;
             appendToBalSource(Constants.SPACE_STR + Constants.EQUAL_STR + Constants.SPACE_STR);
@@ -460,7 +497,7 @@ public class CodeGenVisitor implements NodeVisitor {
          ;
          */
         //handle lhs
-        appendToBalSource(getIndentationForCurrentLine());
+        appendIndentation();
         Expression[] lhsExpressions = assignStmt.getLExprs();
         for (Expression lhsExpression : lhsExpressions) {
             lhsExpression.accept(this);
@@ -484,7 +521,8 @@ public class CodeGenVisitor implements NodeVisitor {
     @Override
     public void visit(CommentStmt commentStmt) {
         logger.debug("Visit - CommentStmt");
-        appendToBalSource(getIndentationForCurrentLine() + commentStmt.getComment() + Constants.NEWLINE_STR);
+        appendIndentation();
+        appendToBalSource(commentStmt.getComment() + Constants.NEWLINE_STR);
     }
 
     @Override
@@ -496,7 +534,8 @@ public class CodeGenVisitor implements NodeVisitor {
          * elseIfClause : 'else' 'if' '(' expression ')' '{' statement* '}';
          * elseClause : 'else' '{' statement*'}';
          */
-        appendToBalSource(getIndentationForCurrentLine() + Constants.IF_STR + Constants.SPACE_STR +
+        appendIndentation();
+        appendToBalSource(Constants.IF_STR + Constants.SPACE_STR +
                 Constants.PARENTHESES_START_STR);
         //process if clause expression
         ifElseStmt.getCondition().accept(this);
@@ -507,7 +546,8 @@ public class CodeGenVisitor implements NodeVisitor {
         ++indentDepth;
         ifElseStmt.getThenBody().accept(this);
         --indentDepth;
-        appendToBalSource(getIndentationForCurrentLine() + Constants.STMTBLOCK_END_STR);
+        appendIndentation();
+        appendToBalSource(Constants.STMTBLOCK_END_STR);
 
         //process else if clauses
         if (ifElseStmt.getElseIfBlocks().length > 0) {
@@ -520,7 +560,8 @@ public class CodeGenVisitor implements NodeVisitor {
                 ++indentDepth;
                 elseIfBlock.getElseIfBody().accept(this);
                 --indentDepth;
-                appendToBalSource(getIndentationForCurrentLine() + Constants.STMTBLOCK_END_STR);
+                appendIndentation();
+                appendToBalSource(Constants.STMTBLOCK_END_STR);
             }
         }
 
@@ -530,7 +571,8 @@ public class CodeGenVisitor implements NodeVisitor {
         ++indentDepth;
         ifElseStmt.getElseBody().accept(this);
         --indentDepth;
-        appendToBalSource(getIndentationForCurrentLine() + Constants.STMTBLOCK_END_STR + Constants.NEWLINE_STR);
+        appendIndentation();
+        appendToBalSource(Constants.STMTBLOCK_END_STR + Constants.NEWLINE_STR);
     }
 
     @Override
@@ -538,7 +580,8 @@ public class CodeGenVisitor implements NodeVisitor {
         /**
          * replyStatement : 'reply' expression ';';
          */
-        appendToBalSource(getIndentationForCurrentLine() + Constants.REPLY_STR + Constants.SPACE_STR);
+        appendIndentation();
+        appendToBalSource(Constants.REPLY_STR + Constants.SPACE_STR);
 
         Expression replyExpression = replyStmt.getReplyExpr();
         if (replyExpression instanceof VariableRefExpr) {
@@ -555,7 +598,8 @@ public class CodeGenVisitor implements NodeVisitor {
          * returnStatement : 'return' expressionList? ';';
          * expressionList:expression (',' expression)*;
          */
-        appendToBalSource(getIndentationForCurrentLine() + Constants.RETURN_STR + Constants.SPACE_STR);
+        appendIndentation();
+        appendToBalSource(Constants.RETURN_STR + Constants.SPACE_STR);
         Expression[] expressions = returnStmt.getExprs();
         for (int i = 0; i < expressions.length; i++) {
             if (i > 0) {
@@ -586,12 +630,14 @@ public class CodeGenVisitor implements NodeVisitor {
          * finallyClause: 'finally' '{' statement* '}';
          */
         //process try block
-        appendToBalSource(getIndentationForCurrentLine() + Constants.TRY_STR + Constants.SPACE_STR +
+        appendIndentation();
+        appendToBalSource(Constants.TRY_STR + Constants.SPACE_STR +
                 Constants.STMTBLOCK_START_STR + Constants.NEWLINE_STR);
         ++indentDepth;
         tryCatchStmt.getTryBlock().accept(this);
         --indentDepth;
-        appendToBalSource(getIndentationForCurrentLine() + Constants.STMTBLOCK_END_STR);
+        appendIndentation();
+        appendToBalSource(Constants.STMTBLOCK_END_STR);
         //process catch blocks
         for (TryCatchStmt.CatchBlock catchBlock : tryCatchStmt.getCatchBlocks()) {
             appendToBalSource(Constants.SPACE_STR + Constants.CATCH_STR + Constants.SPACE_STR +
@@ -602,7 +648,8 @@ public class CodeGenVisitor implements NodeVisitor {
             ++indentDepth;
             catchBlock.getCatchBlockStmt().accept(this);
             --indentDepth;
-            appendToBalSource(getIndentationForCurrentLine() + Constants.STMTBLOCK_END_STR);
+            appendIndentation();
+            appendToBalSource(Constants.STMTBLOCK_END_STR);
         }
         //process finally block
         if (tryCatchStmt.getFinallyBlock() != null) {
@@ -611,7 +658,8 @@ public class CodeGenVisitor implements NodeVisitor {
             ++indentDepth;
             tryCatchStmt.getFinallyBlock().getFinallyBlockStmt().accept(this);
             --indentDepth;
-            appendToBalSource(getIndentationForCurrentLine() + Constants.STMTBLOCK_END_STR + Constants.NEWLINE_STR);
+            appendIndentation();
+            appendToBalSource(Constants.STMTBLOCK_END_STR + Constants.NEWLINE_STR);
         }
         appendToBalSource(Constants.NEWLINE_STR);
     }
@@ -627,7 +675,7 @@ public class CodeGenVisitor implements NodeVisitor {
         /**
          * functionInvocationStatement : nameReference '(' expressionList? ')' ';';
          */
-        appendToBalSource(getIndentationForCurrentLine());
+        appendIndentation();
         functionInvocationStmt.getFunctionInvocationExpr().accept(this);
         appendToBalSource(Constants.STMTEND_STR + Constants.NEWLINE_STR);
     }
@@ -641,7 +689,7 @@ public class CodeGenVisitor implements NodeVisitor {
          |   variableReferenceList '=' actionInvocation ';'
          ;
          */
-        appendToBalSource(getIndentationForCurrentLine());
+        appendIndentation();
         actionInvocationStmt.getActionInvocationExpr().accept(this);
         appendToBalSource(Constants.STMTEND_STR + Constants.NEWLINE_STR);
     }
@@ -649,7 +697,7 @@ public class CodeGenVisitor implements NodeVisitor {
     @Override
     public void visit(WorkerInvocationStmt workerInvocationStmt) {
         logger.debug("Visit - WorkerInvocationStmt");
-        appendToBalSource(getIndentationForCurrentLine());
+        appendIndentation();
         for (Expression expressions : workerInvocationStmt.getExpressionList()) {
             expressions.accept(this);
             if (workerInvocationStmt.getExpressionList().length > 1) {
@@ -663,7 +711,7 @@ public class CodeGenVisitor implements NodeVisitor {
     @Override
     public void visit(WorkerReplyStmt workerReplyStmt) {
         logger.debug("Visit - WorkerReplyStmt");
-        appendToBalSource(getIndentationForCurrentLine());
+        appendIndentation();
         for (Expression expressions : workerReplyStmt.getExpressionList()) {
             expressions.accept(this);
             if (workerReplyStmt.getExpressionList().length > 1) {
@@ -695,13 +743,15 @@ public class CodeGenVisitor implements NodeVisitor {
          * abortedClause : 'aborted' '{' statement* '}';
          * committedClause : 'committed' '{' statement* '}';
          */
-        appendToBalSource(getIndentationForCurrentLine() + Constants.TRANSACTION_STR + Constants.SPACE_STR +
+        appendIndentation();
+        appendToBalSource(Constants.TRANSACTION_STR + Constants.SPACE_STR +
                 Constants.STMTBLOCK_START_STR + Constants.NEWLINE_STR);
         ++indentDepth;
         //process transaction block
         transactionStmt.getTransactionBlock().accept(this);
         --indentDepth;
-        appendToBalSource(getIndentationForCurrentLine() + Constants.STMTBLOCK_END_STR);
+        appendIndentation();
+        appendToBalSource(Constants.STMTBLOCK_END_STR);
 
         //process transaction handlers
         if (transactionStmt.getCommittedBlock() != null) {
@@ -711,7 +761,8 @@ public class CodeGenVisitor implements NodeVisitor {
             ++indentDepth;
             transactionStmt.getCommittedBlock().getCommittedBlockStmt().accept(this);
             --indentDepth;
-            appendToBalSource(getIndentationForCurrentLine() + Constants.STMTBLOCK_END_STR);
+            appendIndentation();
+            appendToBalSource(Constants.STMTBLOCK_END_STR);
         }
 
         if (transactionStmt.getAbortedBlock() != null) {
@@ -721,7 +772,8 @@ public class CodeGenVisitor implements NodeVisitor {
             ++indentDepth;
             transactionStmt.getAbortedBlock().getAbortedBlockStmt().accept(this);
             --indentDepth;
-            appendToBalSource(getIndentationForCurrentLine() + Constants.STMTBLOCK_END_STR);
+            appendIndentation();
+            appendToBalSource(Constants.STMTBLOCK_END_STR);
         }
         appendToBalSource(Constants.NEWLINE_STR);
 
@@ -1015,8 +1067,8 @@ public class CodeGenVisitor implements NodeVisitor {
          * connectorInitExpression : 'create' nameReference '(' expressionList? ')';
          * expressionList : expression (',' expression)*;
          */
-        appendToBalSource(Constants.CREATE_STR).append(Constants.SPACE_STR).
-                append(connectorInitExpr.getTypeName().toString()).append(Constants.PARENTHESES_START_STR);
+        appendToBalSource(Constants.CREATE_STR + Constants.SPACE_STR + connectorInitExpr.getTypeName().toString()
+                + Constants.PARENTHESES_START_STR);
 
         Expression[] expressArgs = connectorInitExpr.getArgExprs();
         for (int i = 0; i < expressArgs.length; i++) {
@@ -1150,28 +1202,42 @@ public class CodeGenVisitor implements NodeVisitor {
 
     }
 
+    /**
+     * Get the generated source of a visitor created without a sink.
+     *
+     * @return generated ballerina source
+     */
     public String getBallerinaSourceStr() {
-        return balSourceBuilder.toString();
+        if (!(balSource instanceof CharSequence)) {
+            throw new IllegalStateException("Ballerina source is written to " + balSource.getClass().getName()
+                    + " and is not kept in memory");
+        }
+        return balSource.toString();
     }
 
-    private StringBuilder appendToBalSource(String str) {
-        return balSourceBuilder.append(str);
+    private void appendToBalSource(String str) {
+        try {
+            balSource.append(str);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error occurred when writing ballerina source", e);
+        }
     }
 
     /*private void appendToBalSourceWithNewLine(String str) {
         ballerinaSourceStr += Constants.NEWLINE_STR + str;
     }*/
 
-    private String getIndentationForCurrentLine() {
-
-        if (previousIndentDepth != indentDepth) {
-            String indentation = "";
+    /**
+     * Append the indentation of the current indent depth. Indentations are taken from a precomputed table, or
+     * appended a tab at a time for deeper depths, so no string is built per line.
+     */
+    private void appendIndentation() {
+        if (indentDepth < INDENTATIONS.length) {
+            appendToBalSource(INDENTATIONS[indentDepth]);
+        } else {
             for (int i = 0; i < indentDepth; i++) {
-                indentation = indentation.concat(Constants.TAB_STR);
+                appendToBalSource(Constants.TAB_STR);
             }
-            previousIndentDepth = indentDepth;
-            indentStr = indentation;
         }
-        return indentStr;
     }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.ei.tools.converter.common;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.ei.tools.converter.common.ConverterEngine.ConversionResult;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the line based protocol of {@link ConverterDaemon}, with a conversion writing the source file name to the
+ * ballerina file.
+ */
+public class ConverterDaemonTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AtomicInteger conversions = new AtomicInteger();
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private ConverterDaemon daemon;
+    private Future<?> serving;
+    private Path tokenFile;
+    private String token;
+    private File sourceFile;
+    private File outputRoot;
+
+    @Before
+    public void startDaemon() throws Exception {
+        sourceFile = new File(temporaryFolder.newFolder("source"), "config.xml");
+        Files.write(sourceFile.toPath(), "<mule/>".getBytes(StandardCharsets.UTF_8));
+        outputRoot = temporaryFolder.newFolder("output");
+        tokenFile = temporaryFolder.getRoot().toPath().resolve("daemon.token");
+        // Parallelism of 1, so that a connection holding the only conversion thread would block the others.
+        daemon = new ConverterDaemon(this::convert, 1, outputRoot.toPath());
+        serving = executorService.submit(() -> {
+            daemon.serve(0, tokenFile);
+            return null;
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!Files.exists(tokenFile) || Files.size(tokenFile) == 0) {
+            assertTrue("Daemon did not start", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+        token = new String(Files.readAllBytes(tokenFile), StandardCharsets.UTF_8);
+    }
+
+    @After
+    public void stopDaemon() throws IOException {
+        daemon.shutdown();
+        executorService.shutdownNow();
+    }
+
+    private ConversionResult convert(File source, String destinationFile) {
+        conversions.incrementAndGet();
+        Exception error = null;
+        try {
+            Files.write(new File(destinationFile).toPath(), source.getName().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            error = e;
+        }
+        return new ConversionResult(source, new File(destinationFile).getName(), error, 1);
+    }
+
+    @Test
+    public void testTokenFileIsOnlyReadableByOwner() throws IOException {
+        assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(tokenFile)));
+    }
+
+    @Test
+    public void testConvertNextToSourceFile() throws IOException {
+        File balFile = new File(sourceFile.getParentFile(), "config.bal");
+
+        assertEquals("OK\t" + balFile.getPath() + "\t1", request("CONVERT\t" + token + "\t" + sourceFile));
+        assertEquals("config.xml", new String(Files.readAllBytes(balFile.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testConvertToOutputRoot() throws IOException {
+        File balFile = new File(outputRoot, "converted.bal");
+
+        assertEquals("OK\t" + balFile.getPath() + "\t1",
+                request("CONVERT\t" + token + "\t" + sourceFile + "\t" + balFile));
+        assertTrue(balFile.isFile());
+    }
+
+    @Test
+    public void testDestinationOutsideAllowedDirectoriesIsRejected() throws IOException {
+        File balFile = new File(temporaryFolder.getRoot(), "source/../outside.bal");
+
+        String response = request("CONVERT\t" + token + "\t" + sourceFile + "\t" + balFile);
+
+        assertTrue(response, response.startsWith("ERROR\t" + sourceFile.getPath() + "\t"));
+        assertFalse(new File(temporaryFolder.getRoot(), "outside.bal").exists());
+        assertEquals(0, conversions.get());
+    }
+
+    @Test
+    public void testInvalidTokenIsRejected() throws IOException {
+        assertEquals("ERROR\t\tinvalid token", request("CONVERT\tguess\t" + sourceFile));
+        assertEquals("ERROR\t\tinvalid token", request(sourceFile.getPath()));
+        assertEquals(0, conversions.get());
+    }
+
+    @Test
+    public void testIdleConnectionDoesNotBlockConversions() throws IOException {
+        try (Socket idleConnection = connect()) {
+            assertTrue(request("CONVERT\t" + token + "\t" + sourceFile).startsWith("OK\t"));
+        }
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        try (Socket idleConnection = connect()) {
+            assertEquals("OK", request("SHUTDOWN\t" + token));
+
+            serving.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertFalse(Files.exists(tokenFile));
+            // Open connections are closed by the shutdown.
+            assertNull(new BufferedReader(new InputStreamReader(idleConnection.getInputStream(),
+                    StandardCharsets.UTF_8)).readLine());
+        }
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getLocalPort());
+        socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        return socket;
+    }
+
+    private String request(String request) throws IOException {
+        try (Socket socket = connect();
+                Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            writer.write(request + "\n");
+            writer.flush();
+            return reader.readLine();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.ei.tools.converter.common;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the ballerina file names {@link ConverterEngine} converts source files to.
+ */
+public class ConverterEngineTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testBalFileNameReplacesLastExtension() {
+        assertEquals("app.bal", ConverterEngine.getBalFileName(new File("app.xml")));
+        assertEquals("order.v1.bal", ConverterEngine.getBalFileName(new File("order.v1.xml")));
+        assertEquals("app.bal", ConverterEngine.getBalFileName(new File("app")));
+        assertEquals(".config.bal", ConverterEngine.getBalFileName(new File(".config")));
+    }
+
+    @Test
+    public void testFilesOfDifferentNamesAreAccepted() throws IOException {
+        ConverterEngine.checkBalFileNames(Arrays.asList(new File("a/app.xml"), new File("b/app.v1.xml"),
+                new File("b/other.xml")));
+    }
+
+    @Test
+    public void testSameFileNameInSubfoldersIsRejected() throws IOException {
+        List<File> sourceFiles = Arrays.asList(temporaryFolder.newFolder("a").toPath().resolve("app.xml").toFile(),
+                temporaryFolder.newFolder("b").toPath().resolve("App.xml").toFile());
+        AtomicInteger conversions = new AtomicInteger();
+
+        try {
+            ConverterEngine.getInstance().convertAll(sourceFiles, temporaryFolder.getRoot().getPath(), sourceFile -> {
+                conversions.incrementAndGet();
+                throw new IOException("Not converted");
+            }, 2);
+            fail("Expected an error for files converted to the same ballerina file");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(sourceFiles.get(0).getPath())
+                    && e.getMessage().contains(sourceFiles.get(1).getPath()));
+        }
+        // No file is converted, so that no ballerina file is overwritten by another source file.
+        assertEquals(0, conversions.get());
+    }
+}
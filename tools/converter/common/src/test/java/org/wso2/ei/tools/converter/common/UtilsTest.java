@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.ei.tools.converter.common;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the program argument utils shared by the converters.
+ */
+public class UtilsTest {
+
+    @Test
+    public void testPositionalArgsWithOptionsInBetween() {
+        assertEquals(Arrays.asList("source", "destination"),
+                Utils.getPositionalArgs("--streaming", "source", "--parallelism=2", "destination"));
+    }
+
+    @Test
+    public void testPositionalArgsWithOnlySource() {
+        assertEquals(Collections.singletonList("source"), Utils.getPositionalArgs("source", "--streaming"));
+    }
+
+    @Test
+    public void testParallelism() {
+        assertEquals(2, Utils.getParallelism("source", "--parallelism=2"));
+        assertEquals(Runtime.getRuntime().availableProcessors(), Utils.getParallelism("source", "--parallelism=0"));
+    }
+}
@@ -20,6 +20,9 @@ package org.wso2.ei.tools.ds2ballerina;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.ei.tools.converter.common.ConverterDaemon;
+import org.wso2.ei.tools.converter.common.ConverterEngine;
+import org.wso2.ei.tools.converter.common.ConverterEngine.ConversionResult;
 import org.wso2.ei.tools.converter.common.Utils;
 import org.wso2.ei.tools.ds2ballerina.beans.DataService;
 import org.wso2.ei.tools.ds2ballerina.configreader.DataServiceReader;
@@ -28,7 +31,6 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -44,11 +46,28 @@ public class DataServiceToBalConverter {
             logger.error("Please provide source file/folder");
             System.exit(-1);
         }
-        File source = new File(args[0]);
+        int daemonPort = ConverterDaemon.getPort(args);
+        if (daemonPort != -1) {
+            try {
+                new ConverterDaemon(DataServiceReader::convertDataServiceFile, Utils.getParallelism(args),
+                        ConverterDaemon.getOutputRoot(args))
+                        .serve(daemonPort, ConverterDaemon.getTokenFile(daemonPort, args));
+            } catch (IOException e) {
+                logger.error("Unable to run the converter daemon.", e);
+                System.exit(1);
+            }
+            return;
+        }
+        List<String> positionalArgs = Utils.getPositionalArgs(args);
+        if (positionalArgs.isEmpty()) {
+            logger.error("Please provide source file/folder");
+            System.exit(-1);
+        }
+        File source = new File(positionalArgs.get(0));
         Path sourcePath = source.toPath().toAbsolutePath();
         logger.info("Source file(s) in location: " + sourcePath.toString());
 
-        String destination = args[1];
+        String destination = positionalArgs.size() > 1 ? positionalArgs.get(1) : null;
 //        String destination = "/home/madhawa/DSS-BAM/i.bal";
 
         try {
@@ -57,21 +76,14 @@ public class DataServiceToBalConverter {
                 if (!Files.exists(path)) {
                     path = Files.createDirectories(path);
                 }
-                destination = path.toString();
-                logger.info("Converted files saved in " + destination);
-
-                List<File> filesInFolder = Files.walk(Paths.get(args[0])).filter(Files::isRegularFile).
-                        map(Path::toFile).collect(Collectors.toList());
-                for (File file : filesInFolder) {
-                    DataService dataService = DataServiceReader.readDataServiceFile(file);
-                    String fileName = file.getName().substring(0, file.getName().indexOf('.')) + ".bal";
-                    DataServiceReader.createBalModel(dataService, destination + File.separator + fileName);
-                    logger.info(fileName + " created successfully.");
+                logger.info("Converted files saved in " + path);
+                List<ConversionResult> results = convertFolder(sourcePath, path, Utils.getParallelism(args));
+                if (ConverterEngine.logResults(results) > 0) {
+                    System.exit(1);
                 }
             } else {
                 if (destination == null || destination.isEmpty()) {
-                    String fileName = sourcePath.toString();
-                    destination = fileName.substring(0, fileName.indexOf('.')) + ".bal";
+                    destination = sourcePath.resolveSibling(ConverterEngine.getBalFileName(source)).toString();
                 }
                 logger.info("Generated ballerina file saved as " + destination);
                 DataService dataService = DataServiceReader.readDataServiceFile(sourcePath.toFile());
@@ -79,6 +91,29 @@ public class DataServiceToBalConverter {
             }
         } catch (IOException e) {
             logger.error("Unable to generate ballerina file.", e);
+            System.exit(1);
         }
     }
+
+    /**
+     * Convert the data service files of a folder and its subfolders to ballerina files in the destination folder.
+     *
+     * @param sourcePath  folder of the data service files
+     * @param destination folder to write the ballerina files, which may be inside the source folder
+     * @param parallelism number of threads converting files
+     * @return results of the files, in path order
+     * @throws IOException if reading the folder fails, or files of different subfolders have the same name
+     */
+    static List<ConversionResult> convertFolder(Path sourcePath, Path destination, int parallelism)
+            throws IOException {
+        // Sorted, so that results are reported in the same order on every run. Files generated in the default
+        // destination, which is inside the source folder, are not sources.
+        Path destinationPath = destination.toAbsolutePath().normalize();
+        List<File> filesInFolder = Files.walk(sourcePath.toAbsolutePath().normalize()).filter(Files::isRegularFile)
+                .filter(file -> !file.startsWith(destinationPath)).sorted().map(Path::toFile)
+                .collect(Collectors.toList());
+        logger.info("Converting " + filesInFolder.size() + " files with " + parallelism + " threads");
+        return ConverterEngine.getInstance().convertAll(filesInFolder, destination.toString(),
+                DataServiceReader::convertDataServiceFile, parallelism);
+    }
 }
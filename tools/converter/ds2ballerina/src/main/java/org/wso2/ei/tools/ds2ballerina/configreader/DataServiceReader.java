@@ -18,22 +18,16 @@
 
 package org.wso2.ei.tools.ds2ballerina.configreader;
 
-import org.ballerinalang.model.BLangPackage;
-import org.ballerinalang.model.BLangProgram;
 import org.ballerinalang.model.BallerinaFile;
-import org.ballerinalang.model.GlobalScope;
-import org.ballerinalang.model.NativeScope;
 import org.ballerinalang.model.builder.BLangModelBuilder;
-import org.ballerinalang.util.program.BLangPrograms;
-import org.ballerinalang.util.repository.PackageRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.ei.tools.converter.common.ConverterEngine;
 import org.wso2.ei.tools.converter.common.generator.BallerinaSourceGenerator;
 import org.wso2.ei.tools.ds2ballerina.beans.DataService;
 import org.wso2.ei.tools.ds2ballerina.util.Util;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
@@ -45,36 +39,59 @@ public class DataServiceReader {
 
     private static Logger logger = LoggerFactory.getLogger(DataServiceReader.class);
 
+    // JAXBContext is thread safe and expensive to create, while an Unmarshaller must only be used by one thread.
+    private static JAXBContext jaxbContext;
+    private static final ThreadLocal<Unmarshaller> UNMARSHALLER = new ThreadLocal<>();
+
     public static DataService readDataServiceFile(File dsFile) throws IOException {
         try {
-            JAXBContext jaxbContext = JAXBContext.newInstance(DataService.class);
-            Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-            return (DataService) jaxbUnmarshaller.unmarshal(dsFile);
+            return (DataService) getUnmarshaller().unmarshal(dsFile);
         } catch (JAXBException e) {
-            throw new IOException("Error occurred while mapping the DataService", e);
+            throw new IOException("Error occurred while mapping the DataService: " + dsFile.getPath(), e);
         }
     }
 
-    public static void createBalModel(DataService dataservice, String outputFile) throws IOException {
-        PackageRepository packageRepository = new PackageRepository() {
-            @Override public PackageSource loadPackage(Path path) {
-                return null;
-            }
-
-            @Override public PackageSource loadFile(Path path) {
-                return null;
-            }
-        };
+    private static synchronized JAXBContext getJAXBContext() throws JAXBException {
+        if (jaxbContext == null) {
+            jaxbContext = JAXBContext.newInstance(DataService.class);
+        }
+        return jaxbContext;
+    }
 
-        GlobalScope globalScope = BLangPrograms.populateGlobalScope();
-        NativeScope nativeScope = BLangPrograms.populateNativeScope();
+    private static Unmarshaller getUnmarshaller() throws JAXBException {
+        Unmarshaller unmarshaller = UNMARSHALLER.get();
+        if (unmarshaller == null) {
+            unmarshaller = getJAXBContext().createUnmarshaller();
+            UNMARSHALLER.set(unmarshaller);
+        }
+        return unmarshaller;
+    }
 
-        BLangProgram programScope = new BLangProgram(globalScope, nativeScope, BLangProgram.Category.SERVICE_PROGRAM);
+    /**
+     * Read a data service configuration file and build its ballerina model.
+     *
+     * @param dsFile data service configuration file
+     * @return ballerina model of the data service
+     * @throws IOException if reading the file fails
+     */
+    public static BallerinaFile convertDataServiceFile(File dsFile) throws IOException {
+        return buildBalModel(readDataServiceFile(dsFile));
+    }
 
-        BLangPackage bLangPackage = new BLangPackage(".", packageRepository, programScope);
-        BLangPackage.PackageBuilder packageBuilder = new BLangPackage.PackageBuilder(bLangPackage);
+    public static void createBalModel(DataService dataservice, String outputFile) throws IOException {
+        BallerinaSourceGenerator sourceGenerator = new BallerinaSourceGenerator();
+        sourceGenerator.generate(buildBalModel(dataservice), outputFile);
+        System.out.print("Done building AST!");
+    }
 
-        BLangModelBuilder modelBuilder = new BLangModelBuilder(packageBuilder, ".");
+    /**
+     * Build ballerina model of a data service, using the Ballerina scopes shared by the {@link ConverterEngine}.
+     *
+     * @param dataservice data service configuration
+     * @return ballerina model of the data service
+     */
+    public static BallerinaFile buildBalModel(DataService dataservice) {
+        BLangModelBuilder modelBuilder = ConverterEngine.getInstance().createModelBuilder();
 
         String pkgPath = "ballerina.lang.messages";
         //String asPkgName = null;
@@ -123,11 +140,7 @@ public class DataServiceReader {
         Util.createResources(modelBuilder, dataservice);
 
         modelBuilder.createService(null, dataservice.getName());
-        BallerinaFile bFile = modelBuilder.build();
-        BallerinaSourceGenerator sourceGenerator = new BallerinaSourceGenerator();
-//        sourceGenerator.generate(bFile, "/home/madhawa/DSS-BAM/madhawa-dss1.bal");
-        sourceGenerator.generate(bFile, outputFile);
-        System.out.print("Done building AST!");
+        return modelBuilder.build();
     }
 
 }
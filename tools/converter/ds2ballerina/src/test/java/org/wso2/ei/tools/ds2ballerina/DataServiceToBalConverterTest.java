@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.ei.tools.ds2ballerina;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of converting a folder of data service files with {@link DataServiceToBalConverter}.
+ */
+public class DataServiceToBalConverterTest {
+
+    private static final int PARALLELISM = 2;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSameFileNameInSubfoldersIsRejected() throws IOException {
+        File sourceFolder = temporaryFolder.newFolder("dataservices");
+        Path firstFile = copySample(sourceFolder.toPath().resolve("orders").resolve("SimpleSelect.dbs"));
+        Path secondFile = copySample(sourceFolder.toPath().resolve("customers").resolve("simpleselect.dbs"));
+        Path destination = Files.createDirectories(sourceFolder.toPath().resolve("generated"));
+
+        try {
+            DataServiceToBalConverter.convertFolder(sourceFolder.toPath(), destination, PARALLELISM);
+            fail("Expected an error for data services converted to the same ballerina file");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(firstFile.toString())
+                    && e.getMessage().contains(secondFile.toString()));
+        }
+        // Neither data service is converted, rather than one overwriting the ballerina file of the other.
+        assertEquals(0, destination.toFile().list().length);
+    }
+
+    private Path copySample(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (InputStream inputStream = getClass().getResourceAsStream("/sample-ds/SimpleSelect.dbs")) {
+            Files.copy(inputStream, file);
+        }
+        return file;
+    }
+}
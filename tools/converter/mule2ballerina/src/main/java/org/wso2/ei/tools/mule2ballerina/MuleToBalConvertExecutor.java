@@ -21,6 +21,10 @@ package org.wso2.ei.tools.mule2ballerina;
 import org.ballerinalang.model.BallerinaFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.ei.tools.converter.common.ConverterDaemon;
+import org.wso2.ei.tools.converter.common.ConverterEngine;
+import org.wso2.ei.tools.converter.common.ConverterEngine.ConversionResult;
+import org.wso2.ei.tools.converter.common.ConverterEngine.Converter;
 import org.wso2.ei.tools.converter.common.Utils;
 import org.wso2.ei.tools.converter.common.generator.BallerinaSourceGenerator;
 import org.wso2.ei.tools.mule2ballerina.configreader.ConfigReader;
@@ -32,8 +36,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -43,17 +50,39 @@ public class MuleToBalConvertExecutor {
 
     private static Logger logger = LoggerFactory.getLogger(ConfigReader.class);
 
+    // Visit each main flow as soon as it is read, instead of keeping all main flows until the config is read.
+    private static final String STREAMING_ARG = "--streaming";
+
     public static void main(String... args) {
 
         if (args == null || args.length == 0) {
             logger.error("Please provide source file/folder");
             System.exit(-1);
         }
-        File source = new File(args[0]);
+        Converter converter = Arrays.asList(args).contains(STREAMING_ARG) ?
+                MuleToBalConvertExecutor::createStreamingBalModel :
+                MuleToBalConvertExecutor::createBalModel;
+        int daemonPort = ConverterDaemon.getPort(args);
+        if (daemonPort != -1) {
+            try {
+                new ConverterDaemon(converter, Utils.getParallelism(args), ConverterDaemon.getOutputRoot(args))
+                        .serve(daemonPort, ConverterDaemon.getTokenFile(daemonPort, args));
+            } catch (IOException e) {
+                logger.error("Unable to run the converter daemon.", e);
+                System.exit(1);
+            }
+            return;
+        }
+        List<String> positionalArgs = Utils.getPositionalArgs(args);
+        if (positionalArgs.isEmpty()) {
+            logger.error("Please provide source file/folder");
+            System.exit(-1);
+        }
+        File source = new File(positionalArgs.get(0));
         Path sourcePath = source.toPath().toAbsolutePath();
         logger.info("Source file(s) in location: " + sourcePath.toString());
 
-        String destination = args[1];
+        String destination = positionalArgs.size() > 1 ? positionalArgs.get(1) : null;
         try {
             if (Files.isDirectory(sourcePath)) {
                 Path path = Utils.getPath(source, destination);
@@ -63,48 +92,92 @@ public class MuleToBalConvertExecutor {
                 destination = path.toString();
                 logger.info("Converted files saved in " + destination);
 
-                List<File> filesInFolder = Files.walk(Paths.get(args[0])).filter(Files::isRegularFile).
-                        map(Path::toFile).collect(Collectors.toList());
-                for (File file : filesInFolder) {
-                    ConfigReader xmlParser = new ConfigReader();
-                    try (InputStream inputStream = xmlParser.getInputStream(file)) {
-                        String fileName = file.getName().substring(0, file.getName().indexOf('.')) + ".bal";
-                        createBalFile(xmlParser, inputStream, destination + File.separator + fileName);
-                        logger.info(fileName + " created successfully.");
-                    }
+                // Sorted, so that results are reported in the same order on every run. Files generated in the
+                // default destination, which is inside the source folder, are not sources.
+                Path destinationPath = path.toAbsolutePath().normalize();
+                List<File> filesInFolder = Files.walk(sourcePath.normalize()).filter(Files::isRegularFile)
+                        .filter(file -> !file.startsWith(destinationPath)).sorted().map(Path::toFile)
+                        .collect(Collectors.toList());
+                int parallelism = Utils.getParallelism(args);
+                logger.info("Converting " + filesInFolder.size() + " files with " + parallelism + " threads");
+                List<ConversionResult> results = ConverterEngine.getInstance().convertAll(filesInFolder, destination,
+                        converter, parallelism);
+                if (ConverterEngine.logResults(results) > 0) {
+                    System.exit(1);
                 }
             } else {
                 if (destination == null || destination.isEmpty()) {
-                    String fileName = source.getName();
-                    destination = fileName.substring(0, fileName.indexOf('.')) + ".bal";
+                    destination = ConverterEngine.getBalFileName(source);
                 }
                 logger.info("Generated ballerina file saved as " + destination);
-                ConfigReader xmlParser = new ConfigReader();
-                try (InputStream inputStream = xmlParser.getInputStream(source)) {
-                    createBalFile(xmlParser, inputStream, destination);
-                }
+                BallerinaSourceGenerator sourceGenerator = new BallerinaSourceGenerator();
+                sourceGenerator.generate(converter.convert(source), destination);
             }
         } catch (IOException e) {
             logger.error("Unable to generate ballerina file.", e);
+            System.exit(1);
         }
     }
 
-    private static void createBalFile(ConfigReader xmlParser, InputStream inputStream, String destination)
-            throws IOException {
-        xmlParser.readXML(inputStream);
+    static BallerinaFile createBalModel(File source) throws IOException {
+        ConfigReader xmlParser = new ConfigReader();
+        try (InputStream inputStream = xmlParser.getInputStream(source)) {
+            xmlParser.readXML(inputStream);
+        }
+        Root muleRootObj = xmlParser.getRootObj();
+        logUnIdentifiedElements(xmlParser);
+        TreeVisitor treeVisitor = new TreeVisitor(muleRootObj);
+        treeVisitor.visit(muleRootObj);
+        return treeVisitor.getBallerinaFile();
+    }
+
+    /**
+     * Create the ballerina model while reading the config, in two passes. The first pass reads global
+     * configurations, sub flows and private flows, and reads main flows only up to their inbound processor, to note
+     * the service of each main flow. The second pass reads the main flows again and visits each of them as soon as
+     * its end tag is read, so that the intermediate objects of a main flow are released once visited instead of being
+     * kept until the end. Only the intermediate objects are bounded, the ballerina AST is still built as a whole, and
+     * flows of a service which is interleaved with flows of other services are kept until their service is created.
+     * The config is parsed twice, so this is slower than {@link #createBalModel(File)}.
+     *
+     * @param source mule config file
+     * @return ballerina model, the same as the one created by {@link #createBalModel(File)}
+     * @throws IOException if reading the config fails
+     */
+    static BallerinaFile createStreamingBalModel(File source) throws IOException {
+        ConfigReader xmlParser = new ConfigReader();
+        Set<String> flowNames = new HashSet<>();
+        List<String> flowServices = new ArrayList<>();
+        xmlParser.setMainFlowBodiesSkipped(true);
+        xmlParser.setFlowListener(flow -> {
+            flowNames.add(flow.getName());
+            flowServices.add(flow.getInboundName());
+        });
+        try (InputStream inputStream = xmlParser.getInputStream(source)) {
+            xmlParser.readXML(inputStream);
+        }
+
         Root muleRootObj = xmlParser.getRootObj();
+        TreeVisitor treeVisitor = new TreeVisitor(muleRootObj, flowServices);
+        ConfigReader flowReader = new ConfigReader();
+        flowReader.setRootObj(muleRootObj);
+        flowReader.setFlowNames(flowNames);
+        flowReader.setFlowListener(treeVisitor::visitCompletedFlow);
+        try (InputStream inputStream = flowReader.getInputStream(source)) {
+            flowReader.readXML(inputStream);
+        }
+        //Elements of the main flows are only read in the second pass
+        xmlParser.getUnIdentifiedElements().addAll(flowReader.getUnIdentifiedElements());
+        logUnIdentifiedElements(xmlParser);
+        return treeVisitor.finish();
+    }
+
+    private static void logUnIdentifiedElements(ConfigReader xmlParser) {
         if (xmlParser.getUnIdentifiedElements() != null && !xmlParser.getUnIdentifiedElements().isEmpty()) {
             logger.warn("Following Elements are not supported by the converter yet!");
             logger.warn("-----------------------------------------------------------");
             xmlParser.getUnIdentifiedElements().forEach(element -> logger.warn(element));
             logger.warn("-----------------------------------------------------------");
         }
-        TreeVisitor treeVisitor = new TreeVisitor(muleRootObj);
-        treeVisitor.visit(muleRootObj);
-        BallerinaFile ballerinaFile = treeVisitor.getBallerinaFile();
-
-        BallerinaSourceGenerator sourceGenerator = new BallerinaSourceGenerator();
-        sourceGenerator.generate(ballerinaFile, destination);
-
     }
 }
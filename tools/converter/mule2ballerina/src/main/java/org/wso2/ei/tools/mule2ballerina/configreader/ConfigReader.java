@@ -21,10 +21,10 @@ package org.wso2.ei.tools.mule2ballerina.configreader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.ei.tools.mule2ballerina.dto.DataCarrierDTO;
-import org.wso2.ei.tools.mule2ballerina.elementmapper.AttributeMapper;
-import org.wso2.ei.tools.mule2ballerina.elementmapper.ElementMapper;
+import org.wso2.ei.tools.mule2ballerina.elementmapper.Element;
 import org.wso2.ei.tools.mule2ballerina.model.BaseObject;
 import org.wso2.ei.tools.mule2ballerina.model.Comment;
+import org.wso2.ei.tools.mule2ballerina.model.Flow;
 import org.wso2.ei.tools.mule2ballerina.model.Root;
 import org.wso2.ei.tools.mule2ballerina.util.Constant;
 
@@ -32,19 +32,16 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import javax.xml.namespace.QName;
-import javax.xml.stream.XMLEventReader;
+import java.util.Queue;
+import java.util.Set;
+import java.util.Stack;
+import javax.xml.XMLConstants;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.Attribute;
-import javax.xml.stream.events.EndElement;
-import javax.xml.stream.events.StartElement;
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamReader;
 
 /**
  * {@code ConfigReader} class reads mule configuration file and builds the intermediate object stack
@@ -53,46 +50,72 @@ public class ConfigReader {
 
     private static Logger logger = LoggerFactory.getLogger(ConfigReader.class);
 
-    private ElementMapper mapperObject;
-    private AttributeMapper attributeMapper;
+    // Creating readers from a configured factory is thread safe, so a factory is shared by all config readers.
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXMLInputFactory();
+    private static final int TOP_LEVEL_DEPTH = 2; //Depth of the elements inside the mule element
+    private static final String FLOW_NAME_ATTRIBUTE = "name";
+
     private Root rootObj;
     private boolean flowStarted = false;
     private boolean subFlowStarted = false;
     private boolean asyncFlowStarted = false;
     private List<String> unIdentifiedElements;
+    private FlowListener flowListener;
+    private Set<String> flowNames; //Names of the only top level elements read, if set
+    private boolean mainFlowBodiesSkipped = false; //Whether main flows are read only up to their inbound processor
 
     public ConfigReader() {
-        mapperObject = new ElementMapper();
-        attributeMapper = new AttributeMapper();
         rootObj = new Root();
         unIdentifiedElements = new ArrayList<String>();
     }
 
+    private static XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+        // Character data of mule configs is not used, so it is not coalesced. DTDs and external entities are ignored.
+        xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return xmlInputFactory;
+    }
+
     /**
-     * Process XML as a stream of events
+     * Process XML with a cursor, without creating an event object per node
      *
      * @param inputStream
      */
     public void readXML(InputStream inputStream) {
-        XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+        XMLStreamReader streamReader = null;
         try {
-            XMLEventReader eventReader = xmlInputFactory.createXMLEventReader(inputStream);
+            streamReader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+            int depth = 0;
+            int skippedDepth = 0; //Depth of the top level element being skipped, 0 if none
 
-            while (eventReader.hasNext()) {
-                XMLEvent xmlEvent = eventReader.nextEvent();
-                switch (xmlEvent.getEventType()) {
+            while (streamReader.hasNext()) {
+                switch (streamReader.next()) {
                 case XMLStreamConstants.START_ELEMENT:
-                    StartElement startElement = xmlEvent.asStartElement();
-                    checkFlowState(getElementOrAttributeName(startElement.getName()), true);
-                    loadIntermediateMuleObjects(startElement);
-                    break;
-
-                case XMLStreamConstants.CHARACTERS:
+                    depth++;
+                    if (skippedDepth == 0 && (depth == TOP_LEVEL_DEPTH && isSkipped(streamReader)
+                            || depth > TOP_LEVEL_DEPTH && isMainFlowBodySkipped())) {
+                        skippedDepth = depth;
+                    }
+                    if (skippedDepth == 0) {
+                        checkFlowState(streamReader.getPrefix(), streamReader.getLocalName(), true);
+                        loadIntermediateMuleObjects(streamReader);
+                    }
                     break;
 
                 case XMLStreamConstants.END_ELEMENT:
-                    EndElement endElement = xmlEvent.asEndElement();
-                    checkFlowState(getElementOrAttributeName(endElement.getName()), false);
+                    if (skippedDepth == 0) {
+                        String prefix = streamReader.getPrefix();
+                        String localName = streamReader.getLocalName();
+                        checkFlowState(prefix, localName, false);
+                        if (flowListener != null && isUnprefixed(prefix) && Constant.MULE_FLOW.equals(localName)) {
+                            completeFlow();
+                        }
+                    } else if (skippedDepth == depth) {
+                        skippedDepth = 0;
+                    }
+                    depth--;
                     break;
 
                 default:
@@ -101,6 +124,57 @@ public class ConfigReader {
             }
         } catch (XMLStreamException e) {
             logger.error(e.getMessage(), e);
+        } finally {
+            closeStreamReader(streamReader);
+        }
+    }
+
+    /**
+     * Check whether a top level element is skipped, as only the flows of the given names are read.
+     */
+    private boolean isSkipped(XMLStreamReader streamReader) {
+        return flowNames != null && !(isUnprefixed(streamReader.getPrefix())
+                && Constant.MULE_FLOW.equals(streamReader.getLocalName())
+                && flowNames.contains(streamReader.getAttributeValue(null, FLOW_NAME_ATTRIBUTE)));
+    }
+
+    /**
+     * Check whether the rest of the flow being read is skipped, as it is a main flow whose inbound processor has been
+     * read. Private flows, which do not start with an inbound processor, are always read as a whole.
+     */
+    private boolean isMainFlowBodySkipped() {
+        if (!mainFlowBodiesSkipped || !flowStarted || subFlowStarted) {
+            return false;
+        }
+        Flow flow = rootObj.getCurrentFlow();
+        Stack<Flow> flowList = rootObj.getFlowList();
+        return flow != null && !flow.getFlowProcessors().isEmpty() && !flowList.isEmpty() && flowList.peek() == flow;
+    }
+
+    /**
+     * Hand over a main flow, whose end tag has just been read, to the flow listener and remove it from the root.
+     * Private flows are kept in the root, as they can be referred by any flow.
+     */
+    private void completeFlow() {
+        Flow flow = rootObj.getCurrentFlow();
+        Stack<Flow> flowList = rootObj.getFlowList();
+        if (!flowList.isEmpty() && flowList.peek() == flow) {
+            flowList.pop();
+            Queue<Flow> serviceFlows = rootObj.getServiceMap().get(flow.getInboundName());
+            if (serviceFlows != null) {
+                serviceFlows.remove(flow);
+            }
+            flowListener.flowCompleted(flow);
+        }
+    }
+
+    private void closeStreamReader(XMLStreamReader streamReader) {
+        if (streamReader != null) {
+            try {
+                streamReader.close();
+            } catch (XMLStreamException e) {
+                logger.warn(e.getMessage(), e);
+            }
         }
     }
 
@@ -125,114 +199,75 @@ public class ConfigReader {
      * If the mule element is not mapped to an object, put it in an unidentified element list and make a comment in
      * ballerina code specifying that feature should be manually handled.
      *
-     * @param mElement represents any mule element
+     * @param streamReader stream reader positioned at the start tag of any mule element
      */
-    private void loadIntermediateMuleObjects(StartElement mElement) {
-        String mElementName = getElementName(mElement);
-        String mClassName = mapperObject.getElementToObjMapper().get(mElementName);
-        Class<?> intermediateClass = null;
-        if (mClassName != null) {
-            try {
-                intermediateClass = Class.forName(mClassName);
-                populateIntermediateObject(mElement.getAttributes(), intermediateClass);
-
-            } catch (ClassNotFoundException e) {
-                logger.error(e.getMessage(), e);
-            }
-        } else {
-            if (!Constant.MULE_TAG.equals(mElementName)) {
-                unIdentifiedElements.add(mElementName);
-                Comment comment = new Comment();
-                comment.setComment(" //IMPORTANT: Functionality provided by " + mElementName + " should be handled "
-                        + "manually here");
-                DataCarrierDTO dataCarrierDTO = populateDataCarrier(comment);
-                comment.buildTree(dataCarrierDTO);
-            }
+    private void loadIntermediateMuleObjects(XMLStreamReader streamReader) {
+        String prefix = streamReader.getPrefix();
+        String localName = streamReader.getLocalName();
+        Element element = Element.get(prefix, localName);
+        if (element != null) {
+            populateIntermediateObject(streamReader, element);
+        } else if (!isUnprefixed(prefix) || !Constant.MULE_TAG.equals(localName)) {
+            String mElementName = getQualifiedName(prefix, localName);
+            unIdentifiedElements.add(mElementName);
+            Comment comment = new Comment();
+            comment.setComment(" //IMPORTANT: Functionality provided by " + mElementName + " should be handled "
+                    + "manually here");
+            DataCarrierDTO dataCarrierDTO = populateDataCarrier(comment);
+            comment.buildTree(dataCarrierDTO);
         }
     }
 
-    /**
-     * Get mule element's name with the prefix in string format
-     *
-     * @param muleElement represents a mule tag
-     * @return
-     */
-    private String getElementName(StartElement muleElement) {
-        QName qName = (muleElement != null ? muleElement.getName() : null);
-        return getElementOrAttributeName(qName);
+    private static boolean isUnprefixed(String prefix) {
+        return prefix == null || XMLConstants.DEFAULT_NS_PREFIX.equals(prefix);
     }
 
     /**
-     * Get  mule attribute name with the prefix in string format
+     * Get mule element or attribute name with the prefix in string format. Only used for names which are reported,
+     * mapped names are matched by prefix and local name.
      *
-     * @param attribute mule attribute
+     * @param prefix    prefix of the name
+     * @param localName name without the prefix
      * @return
      */
-    private String getAttributeName(Attribute attribute) {
-        QName qName = (attribute != null ? attribute.getName() : null);
-        return getElementOrAttributeName(qName);
-    }
-
-    /**
-     * Given a valid identifier for a mule element or an attribute, get string value of it with the prefix attached
-     * to it
-     *
-     * @param qName valid identifier for mule element or attribute
-     * @return
-     */
-    private String getElementOrAttributeName(QName qName) {
-        String prefix = (qName != null ? qName.getPrefix() : "");
-        String mainElement = (qName != null ? qName.getLocalPart() : "");
-        String name = (prefix != null && !prefix.equals("") ? (prefix + ":" + mainElement) : mainElement);
-        return name;
+    private static String getQualifiedName(String prefix, String localName) {
+        return isUnprefixed(prefix) ? localName : prefix + ":" + localName;
     }
 
     /**
      * Populate intermediate object properties with mule attribute values and add that element in its proper place in
      * the intermediate object stack
      *
-     * @param attributes List of attributes associate with a mule element
-     * @param mClass     Intermediate class that is mapped to the mule element
+     * @param streamReader stream reader positioned at the start tag of the mule element
+     * @param element      Mule element, binding the attributes to the intermediate class
      */
-    private void populateIntermediateObject(Iterator<Attribute> attributes, Class<?> mClass) {
-        try {
-            java.lang.Object object = mClass.newInstance();
-
-            attributes.forEachRemaining(attribute -> {
-                try {
-                    String property = attributeMapper.getmAttributeMapper().get(getAttributeName(attribute));
-                    if (property != null) {
-                        Field field = mClass.getDeclaredField(property);
-                        field.setAccessible(true);
-                        field.set(object, attribute.getValue());
-                    }
-                } catch (NoSuchFieldException e) {
-                    logger.warn(
-                            " NoSuchFieldException : There can be attributes in mule xml that is not " + "mapped " + e);
-                } catch (IllegalAccessException e) {
-                    logger.error(e.getMessage(), e);
-                }
-            });
-
-            BaseObject muleObj = (BaseObject) object;
-            DataCarrierDTO dataCarrierDTO = populateDataCarrier(muleObj);
-            muleObj.buildTree(dataCarrierDTO);
-
-        } catch (IllegalAccessException e) {
-            logger.error(e.getMessage(), e);
-        } catch (InstantiationException e) {
-            logger.error(e.getMessage(), e);
+    private void populateIntermediateObject(XMLStreamReader streamReader, Element element) {
+        BaseObject muleObj = element.newInstance();
+        for (int i = 0; i < streamReader.getAttributeCount(); i++) {
+            String prefix = streamReader.getAttributePrefix(i);
+            String localName = streamReader.getAttributeLocalName(i);
+            if (!element.setAttribute(muleObj, prefix, localName, streamReader.getAttributeValue(i))
+                    && logger.isDebugEnabled()) {
+                logger.debug("Attribute " + getQualifiedName(prefix, localName) + " of " + element + " is not mapped");
+            }
         }
+
+        DataCarrierDTO dataCarrierDTO = populateDataCarrier(muleObj);
+        muleObj.buildTree(dataCarrierDTO);
     }
 
     /**
      * Given a mule element, if it's a flow or a subflow, determine the flow start or end.
      *
-     * @param startOrEndElement start or end tag of any mule element
-     * @param isFlowStarted     Track flow start or end
+     * @param prefix        prefix of the start or end tag of any mule element
+     * @param localName     name of the start or end tag without the prefix
+     * @param isFlowStarted Track flow start or end
      */
-    private void checkFlowState(String startOrEndElement, boolean isFlowStarted) {
-        switch (startOrEndElement) {
+    private void checkFlowState(String prefix, String localName, boolean isFlowStarted) {
+        if (!isUnprefixed(prefix)) {
+            return;
+        }
+        switch (localName) {
         case Constant.MULE_FLOW:
             flowStarted = isFlowStarted;
             break;
@@ -277,6 +312,37 @@ public class ConfigReader {
         this.rootObj = rootObj;
     }
 
+    /**
+     * Set a listener to be notified of each main flow as soon as it has been read. Main flows handed over to the
+     * listener are not kept in the root, so that the intermediate object stack does not grow with the config file.
+     *
+     * @param flowListener listener of completed main flows
+     */
+    public void setFlowListener(FlowListener flowListener) {
+        this.flowListener = flowListener;
+    }
+
+    /**
+     * Read only the flows of the given names, skipping global configurations, sub flows and other flows. Used to read
+     * the main flows of a config again, once the elements they refer to have been read.
+     *
+     * @param flowNames names of the flows to read, null to read all elements
+     */
+    public void setFlowNames(Set<String> flowNames) {
+        this.flowNames = flowNames;
+    }
+
+    /**
+     * Read main flows only up to their inbound processor, which is enough to know the service of each main flow.
+     * Used to read global configurations, sub flows and private flows before reading the main flows with
+     * {@link #setFlowNames(Set)}.
+     *
+     * @param mainFlowBodiesSkipped whether the rest of each main flow is skipped
+     */
+    public void setMainFlowBodiesSkipped(boolean mainFlowBodiesSkipped) {
+        this.mainFlowBodiesSkipped = mainFlowBodiesSkipped;
+    }
+
     /**
      * Get unidentified elements as a list of strings
      *
@@ -286,4 +352,17 @@ public class ConfigReader {
         return unIdentifiedElements;
     }
 
+    /**
+     * Listener of main flows completed while reading a mule configuration
+     */
+    @FunctionalInterface
+    public interface FlowListener {
+
+        /**
+         * Called when the end tag of a main flow is read.
+         *
+         * @param flow main flow with all its processors
+         */
+        void flowCompleted(Flow flow);
+    }
 }
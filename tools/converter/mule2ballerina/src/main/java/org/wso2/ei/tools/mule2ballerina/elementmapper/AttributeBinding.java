@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.ei.tools.mule2ballerina.elementmapper;
+
+import org.wso2.ei.tools.mule2ballerina.model.BaseObject;
+
+import java.util.function.BiConsumer;
+
+/**
+ * {@code AttributeBinding} binds a mule attribute to the setter of its property in an intermediate class
+ *
+ * @param <T> intermediate class
+ */
+public class AttributeBinding<T extends BaseObject> {
+
+    private Attribute attribute;
+    private BiConsumer<T, String> setter;
+
+    private AttributeBinding(Attribute attribute, BiConsumer<T, String> setter) {
+        this.attribute = attribute;
+        this.setter = setter;
+    }
+
+    public static <T extends BaseObject> AttributeBinding<T> bind(Attribute attribute, BiConsumer<T, String> setter) {
+        return new AttributeBinding<T>(attribute, setter);
+    }
+
+    public Attribute getAttribute() {
+        return attribute;
+    }
+
+    public BiConsumer<T, String> getSetter() {
+        return setter;
+    }
+}
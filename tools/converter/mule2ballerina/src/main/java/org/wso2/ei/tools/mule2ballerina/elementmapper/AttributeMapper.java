@@ -1,40 +0,0 @@
-/*
- * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
- *
- * WSO2 Inc. licenses this file to you under the Apache License,
- * Version 2.0 (the "License"); you may not use this file except
- * in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing,
- * software distributed under the License is distributed on an
- * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
- * KIND, either express or implied. See the License for the
- * specific language governing permissions and limitations
- * under the License.
- */
-
-package org.wso2.ei.tools.mule2ballerina.elementmapper;
-
-import java.util.HashMap;
-import java.util.Map;
-
-/**
- * {@code AttributeMapper} keeps a map of mule attributes against property names
- */
-public class AttributeMapper {
-
-    private Map<String, String> mAttributeMapper = new HashMap<String, String>();
-
-    public AttributeMapper() {
-        for (Attribute attribute : Attribute.values()) {
-            mAttributeMapper.put(attribute.getAttribute(), attribute.getProperty());
-        }
-    }
-
-    public Map<String, String> getmAttributeMapper() {
-        return mAttributeMapper;
-    }
-}
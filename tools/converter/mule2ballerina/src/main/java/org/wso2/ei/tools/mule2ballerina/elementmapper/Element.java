@@ -18,40 +18,144 @@
 
 package org.wso2.ei.tools.mule2ballerina.elementmapper;
 
+import org.wso2.ei.tools.mule2ballerina.model.AsynchronousTask;
+import org.wso2.ei.tools.mule2ballerina.model.BaseObject;
+import org.wso2.ei.tools.mule2ballerina.model.Flow;
+import org.wso2.ei.tools.mule2ballerina.model.FlowReference;
+import org.wso2.ei.tools.mule2ballerina.model.HttpListener;
+import org.wso2.ei.tools.mule2ballerina.model.HttpListenerConfig;
+import org.wso2.ei.tools.mule2ballerina.model.HttpRequest;
+import org.wso2.ei.tools.mule2ballerina.model.HttpRequestConfig;
+import org.wso2.ei.tools.mule2ballerina.model.Logger;
+import org.wso2.ei.tools.mule2ballerina.model.Payload;
+import org.wso2.ei.tools.mule2ballerina.model.PropertyRemover;
+import org.wso2.ei.tools.mule2ballerina.model.PropertySetter;
+import org.wso2.ei.tools.mule2ballerina.model.SubFlow;
+import org.wso2.ei.tools.mule2ballerina.model.VariableRemover;
+import org.wso2.ei.tools.mule2ballerina.model.VariableSetter;
+
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import static org.wso2.ei.tools.mule2ballerina.elementmapper.AttributeBinding.bind;
+
 /**
- * {@code Element} enumeration keeps mule elements against its representative internal class
+ * {@code Element} enumeration keeps mule elements against a factory of its representative internal class and the
+ * setters of the attributes of the element, so that intermediate objects are populated without reflection
  */
 public enum Element {
 
-    HTTP_LISTENER_CONFIG("http:listener-config", "org.wso2.ei.tools.mule2ballerina.model" + ".HttpListenerConfig"),
-    HTTP_LISTENER("http:listener", "org.wso2.ei.tools.mule2ballerina.model.HttpListener"),
-    FLOW("flow", "org.wso2.ei.tools.mule2ballerina.model.Flow"),
-    SET_PAYLOAD("set-payload", "org.wso2.ei.tools.mule2ballerina.model.Payload"),
-    HTTP_REQUEST("http:request", "org.wso2.ei.tools.mule2ballerina.model.HttpRequest"),
-    HTTP_REQUEST_CONFIG("http:request-config", "org.wso2.ei.tools.mule2ballerina.model.HttpRequestConfig"),
-    LOGGER("logger", "org.wso2.ei.tools.mule2ballerina.model.Logger"),
-    PROPERTY_SETTER("set-property", "org.wso2.ei.tools.mule2ballerina.model.PropertySetter"),
-    PROPERTY_REMOVER("remove-property", "org.wso2.ei.tools.mule2ballerina.model.PropertyRemover"),
-    VARIABLE_SETTER("set-variable", "org.wso2.ei.tools.mule2ballerina.model.VariableSetter"),
-    VARIABLE_REMOVER("remove-variable", "org.wso2.ei.tools.mule2ballerina.model.VariableRemover"),
-    FLOW_REF("flow-ref", "org.wso2.ei.tools.mule2ballerina.model.FlowReference"),
-    SUB_FLOW("sub-flow", "org.wso2.ei.tools.mule2ballerina.model.SubFlow"),
-    ASYNC("async", "org.wso2.ei.tools.mule2ballerina.model.AsynchronousTask");
+    HTTP_LISTENER_CONFIG("http:listener-config", HttpListenerConfig::new,
+            bind(Attribute.NAME, HttpListenerConfig::setName),
+            bind(Attribute.HOST, HttpListenerConfig::setHost),
+            bind(Attribute.PORT, HttpListenerConfig::setPort),
+            bind(Attribute.BASE_PATH, HttpListenerConfig::setBasePath)),
+    HTTP_LISTENER("http:listener", HttpListener::new,
+            bind(Attribute.CONFIG_REF, HttpListener::setConfigRef),
+            bind(Attribute.PATH, HttpListener::setPath),
+            bind(Attribute.ALLOWED_MOTHODS, HttpListener::setAllowedMethods)),
+    FLOW("flow", Flow::new,
+            bind(Attribute.NAME, Flow::setName)),
+    SET_PAYLOAD("set-payload", Payload::new,
+            bind(Attribute.VALUE, Payload::setValue),
+            bind(Attribute.MIME_TYPE, Payload::setMimeType)),
+    HTTP_REQUEST("http:request", HttpRequest::new,
+            bind(Attribute.CONFIG_REF, HttpRequest::setConfigRef),
+            bind(Attribute.PATH, HttpRequest::setPath),
+            bind(Attribute.METHOD, HttpRequest::setMethod)),
+    HTTP_REQUEST_CONFIG("http:request-config", HttpRequestConfig::new,
+            bind(Attribute.NAME, HttpRequestConfig::setName),
+            bind(Attribute.HOST, HttpRequestConfig::setHost),
+            bind(Attribute.BASE_PATH, HttpRequestConfig::setBasePath),
+            bind(Attribute.PORT, HttpRequestConfig::setPort),
+            bind(Attribute.PROTOCOL, HttpRequestConfig::setProtocol)),
+    LOGGER("logger", Logger::new,
+            bind(Attribute.LEVEL, Logger::setLevel),
+            bind(Attribute.MESSAGE, Logger::setMessage)),
+    PROPERTY_SETTER("set-property", PropertySetter::new,
+            bind(Attribute.PROPERTY_NAME, PropertySetter::setPropertyName),
+            bind(Attribute.VALUE, PropertySetter::setValue)),
+    PROPERTY_REMOVER("remove-property", PropertyRemover::new,
+            bind(Attribute.PROPERTY_NAME, PropertyRemover::setPropertyName)),
+    VARIABLE_SETTER("set-variable", VariableSetter::new,
+            bind(Attribute.VARIABLE_NAME, VariableSetter::setVariableName),
+            bind(Attribute.VALUE, VariableSetter::setValue)),
+    VARIABLE_REMOVER("remove-variable", VariableRemover::new,
+            bind(Attribute.VARIABLE_NAME, VariableRemover::setVariableName)),
+    FLOW_REF("flow-ref", FlowReference::new,
+            bind(Attribute.NAME, FlowReference::setName)),
+    SUB_FLOW("sub-flow", SubFlow::new,
+            bind(Attribute.NAME, SubFlow::setName)),
+    ASYNC("async", AsynchronousTask::new,
+            bind(Attribute.NAME, AsynchronousTask::setName));
+
+    private static final QualifiedNameMap<Element> ENUM_MAP;
 
     private String value;
-    private String internalClassName;
+    private Supplier<? extends BaseObject> factory;
+    private QualifiedNameMap<BiConsumer<BaseObject, String>> attributeSetters = new QualifiedNameMap<>();
 
-    Element(final String value, final String intermediateMClassname) {
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    <T extends BaseObject> Element(final String value, final Supplier<T> factory,
+            final AttributeBinding<T>... attributeBindings) {
         this.value = value;
-        this.internalClassName = intermediateMClassname;
+        this.factory = factory;
+        for (AttributeBinding<T> attributeBinding : attributeBindings) {
+            // Only objects created by the factory of this element are passed to the setters.
+            attributeSetters.put(attributeBinding.getAttribute().getAttribute(),
+                    (BiConsumer<BaseObject, String>) attributeBinding.getSetter());
+        }
+    }
+
+    // Build a map of mule element name to enum pairs, which is not modified afterwards.
+    static {
+        ENUM_MAP = new QualifiedNameMap<Element>();
+        for (Element instance : Element.values()) {
+            ENUM_MAP.put(instance.getValue(), instance);
+        }
+    }
+
+    /**
+     * Get the element of a mule element name
+     *
+     * @param prefix    prefix of the mule element name, null or empty if it has no prefix
+     * @param localName mule element name without the prefix
+     * @return element, null if the mule element is not mapped to an internal class
+     */
+    public static Element get(String prefix, String localName) {
+        return ENUM_MAP.get(prefix, localName);
     }
 
     public String getValue() {
         return value;
     }
 
-    public String getInternalClassName() {
-        return internalClassName;
+    /**
+     * Create an instance of the internal class of the element
+     *
+     * @return intermediate object
+     */
+    public BaseObject newInstance() {
+        return factory.get();
+    }
+
+    /**
+     * Set an attribute of the element in an intermediate object created by {@link #newInstance()}
+     *
+     * @param intermediateObject intermediate object of this element
+     * @param prefix             prefix of the mule attribute name, null or empty if it has no prefix
+     * @param localName          mule attribute name without the prefix
+     * @param value              attribute value
+     * @return false if the attribute is not mapped to a property of the internal class
+     */
+    public boolean setAttribute(BaseObject intermediateObject, String prefix, String localName, String value) {
+        BiConsumer<BaseObject, String> setter = attributeSetters.get(prefix, localName);
+        if (setter == null) {
+            return false;
+        }
+        setter.accept(intermediateObject, value);
+        return true;
     }
 
     @Override
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.ei.tools.mule2ballerina.elementmapper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code QualifiedNameMap} maps prefixed mule element and attribute names, eg: http:listener, to values. Values are
+ * looked up by the prefix and the local name reported by the XML parser, without building the prefixed name
+ *
+ * @param <V> type of the values
+ */
+class QualifiedNameMap<V> {
+
+    private static final String NO_PREFIX = "";
+    private static final char PREFIX_SEPARATOR = ':';
+
+    private Map<String, Map<String, V>> prefixMap = new HashMap<>();
+
+    void put(String qualifiedName, V value) {
+        int separatorIndex = qualifiedName.indexOf(PREFIX_SEPARATOR);
+        String prefix = separatorIndex == -1 ? NO_PREFIX : qualifiedName.substring(0, separatorIndex);
+        prefixMap.computeIfAbsent(prefix, key -> new HashMap<>()).put(qualifiedName.substring(separatorIndex + 1),
+                value);
+    }
+
+    /**
+     * Get the value of a name
+     *
+     * @param prefix    prefix of the name, null or empty if the name has no prefix
+     * @param localName name without the prefix
+     * @return value, null if the name is not mapped
+     */
+    V get(String prefix, String localName) {
+        Map<String, V> localNameMap = prefixMap.get(prefix == null ? NO_PREFIX : prefix);
+        return localNameMap == null ? null : localNameMap.get(localName);
+    }
+}
@@ -53,6 +53,16 @@ public class Flow extends BaseObject implements Visitable {
         flowProcessors.add(processor);
     }
 
+    /**
+     * Get the global configuration name of the inbound connector of a main flow, which identifies its service
+     *
+     * @return configuration name, null if the flow does not start with an inbound connector
+     */
+    public String getInboundName() {
+        Processor firstProcessor = flowProcessors.peek();
+        return firstProcessor instanceof Inbound ? ((Inbound) firstProcessor).getName() : null;
+    }
+
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
@@ -36,6 +36,7 @@ public class Root extends BaseObject implements Visitable {
 
     private List<GlobalConfiguration> globalConfigurations;
     private Stack<Flow> flowList; //Flows in LIFO order
+    private Flow currentFlow; //Flow or private flow of the processors being read
     private Map<String, GlobalConfiguration> configMap; //All global configurations against it's name
     private Map<String, Queue<Flow>> serviceMap; //Map of services and it's resources maintained as a queue
     private Map<String, SubFlow> subFlowMap; //All subflows against their names
@@ -71,6 +72,11 @@ public class Root extends BaseObject implements Visitable {
     /* Maintain main flows in LIFO order */
     public void addMFlow(Flow flow) {
         this.flowList.add(flow);
+        this.currentFlow = flow;
+    }
+
+    public Flow getCurrentFlow() {
+        return currentFlow;
     }
 
     public void addToPrivateFlowStack(Flow privateFlow) {
@@ -43,8 +43,13 @@ import org.wso2.ei.tools.mule2ballerina.util.Constant;
 import org.wso2.ei.tools.mule2ballerina.util.LogLevel;
 import org.wso2.ei.tools.mule2ballerina.util.MimeType;
 
+import java.util.ArrayDeque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Queue;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -72,12 +77,42 @@ public class TreeVisitor implements Visitor {
     private String funcParaName;
     private int resourceAnnotationCount = 0; //Keeps track of annotation count of a resource
     private int workerCounter = 0;
+    private boolean streaming = false; //Whether main flows are given one by one, with services closed by the visitor
+    private Iterator<Map.Entry<String, Integer>> serviceIterator; //Services of streamed flows in the config order
+    private boolean serviceOpen = false; //Whether flows of a streamed service are still to be visited
+    private String openService; //Config name of the streamed service whose flows are being visited
+    private int openServiceFlows; //Flows of the open service which are still to be visited
+    private Map<String, Queue<Flow>> bufferedFlows = new HashMap<String, Queue<Flow>>(); //Flows of later services
 
     public TreeVisitor(Root mRoot) {
         ballerinaASTAPI = new BallerinaASTModelBuilder();
         this.mRoot = mRoot;
     }
 
+    /**
+     * Create a visitor of main flows given one by one through {@link #visitCompletedFlow(Flow)}, with the ballerina
+     * file built by {@link #finish()}. Resources of a service are created together, in the order its inbound config
+     * is first used, so a flow of a service which is not the one being created is kept until all the flows of the
+     * previous services are visited. The result is the same as visiting the root of a config whose flows of each
+     * inbound config are next to each other.
+     *
+     * @param mRoot        root of the intermediate object stack, holding global configurations, sub flows and
+     *                     private flows referred by the main flows
+     * @param flowServices inbound config names of all the main flows of the config, in the config order
+     */
+    public TreeVisitor(Root mRoot, List<String> flowServices) {
+        ballerinaASTAPI = new BallerinaASTModelBuilder();
+        this.mRoot = mRoot;
+        this.streaming = true;
+        Map<String, Integer> serviceFlows = new LinkedHashMap<String, Integer>();
+        for (String serviceName : flowServices) {
+            Integer flowCount = serviceFlows.get(serviceName);
+            serviceFlows.put(serviceName, flowCount == null ? 1 : flowCount + 1);
+        }
+        serviceIterator = serviceFlows.entrySet().iterator();
+        openNextService();
+    }
+
     /**
      * Visit Root. Main flows and private flows are visited separately as they serve two different purposes.
      *
@@ -90,7 +125,94 @@ public class TreeVisitor implements Visitor {
         for (Flow flow : root.getFlowList()) {
             flow.accept(this);
         }
-        //Visit each private flow to create functions. (Private flows are treated as functions.)
+        visitPrivateFlows(root);
+        logger.debug("-ERoot");
+        ballerinaFile = ballerinaASTAPI.buildBallerinaFile();
+    }
+
+    /**
+     * Visit a main flow of a streamed config as soon as it has been read, if it belongs to the service being created.
+     * Otherwise the flow is kept until the service it belongs to is created.
+     *
+     * @param flow main flow, which is no longer in the root
+     */
+    public void visitCompletedFlow(Flow flow) {
+        String serviceName = flow.getInboundName();
+        if (serviceOpen && Objects.equals(openService, serviceName)) {
+            visitServiceFlow(flow);
+        } else {
+            Queue<Flow> flows = bufferedFlows.get(serviceName);
+            if (flows == null) {
+                flows = new ArrayDeque<Flow>();
+                bufferedFlows.put(serviceName, flows);
+            }
+            flows.add(flow);
+        }
+    }
+
+    /**
+     * Complete a streamed config, once all of its main flows have been given. Services are closed even if some of
+     * their flows were not given, and private flows are visited to create functions.
+     *
+     * @return ballerina file of the config
+     */
+    public BallerinaFile finish() {
+        while (serviceOpen) {
+            closeService(openService);
+            openNextService();
+        }
+        visitPrivateFlows(mRoot);
+        ballerinaFile = ballerinaASTAPI.buildBallerinaFile();
+        return ballerinaFile;
+    }
+
+    /**
+     * Visit a streamed flow of the open service as a resource and close the service after its last flow.
+     *
+     * @param flow main flow
+     */
+    private void visitServiceFlow(Flow flow) {
+        flow.accept(this);
+        if (--openServiceFlows == 0) {
+            closeService(openService);
+            openNextService();
+        }
+    }
+
+    /**
+     * Open the next service of the streamed config and visit its flows which have already been given.
+     */
+    private void openNextService() {
+        serviceOpen = serviceIterator.hasNext();
+        if (serviceOpen) {
+            Map.Entry<String, Integer> service = serviceIterator.next();
+            openService = service.getKey();
+            openServiceFlows = service.getValue();
+            Queue<Flow> flows = bufferedFlows.remove(openService);
+            while (flows != null && !flows.isEmpty()) {
+                visitServiceFlow(flows.remove());
+            }
+        }
+    }
+
+    /**
+     * End the service definition of a streamed inbound config, once all its resources are created.
+     *
+     * @param configName inbound config name, null for main flows without processors, which do not create a service
+     */
+    private void closeService(String configName) {
+        if (configName != null && serviceTrack.get(configName) != null) {
+            String serviceName = Constant.BLANG_SERVICE_NAME + ++serviceCounter;
+            ballerinaASTAPI.endOfService(serviceName); //End of service
+        }
+    }
+
+    /**
+     * Visit each private flow to create functions. (Private flows are treated as functions.)
+     *
+     * @param root
+     */
+    private void visitPrivateFlows(Root root) {
         for (Flow privateFlow : root.getPrivateFlowList()) {
             ballerinaASTAPI.startFunction();
             ballerinaASTAPI.addTypes(Constant.BLANG_TYPE_MESSAGE); //type of the parameter
@@ -103,8 +225,6 @@ public class TreeVisitor implements Visitor {
             ballerinaASTAPI.endCallableBody();
             ballerinaASTAPI.endOfFunction(privateFlow.getName()); //Function name will be the same as private flow name
         }
-        logger.debug("-ERoot");
-        ballerinaFile = ballerinaASTAPI.buildBallerinaFile();
     }
 
     /**
@@ -155,9 +275,9 @@ public class TreeVisitor implements Visitor {
 
                 /* At the end of each flow get the flow queue associate with its config and
                  * remove this flow from the queue, so that when there are no flows (resources) associate with a config
-                 * (service) we can close the service
+                 * (service) we can close the service. Services of streamed flows are closed by the streaming visitor.
                  */
-                if (mRoot.getServiceMap() != null) {
+                if (!streaming && mRoot.getServiceMap() != null) {
                     Queue<Flow> flows = mRoot.getServiceMap().get(inboundName);
                     if (flows != null) {
                         flows.remove();
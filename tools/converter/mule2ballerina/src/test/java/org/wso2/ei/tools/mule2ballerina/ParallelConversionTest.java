@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.ei.tools.mule2ballerina;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.ei.tools.converter.common.ConverterEngine;
+import org.wso2.ei.tools.converter.common.ConverterEngine.ConversionResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that converting files in parallel with {@link ConverterEngine} generates the same ballerina files as
+ * converting them serially.
+ */
+public class ParallelConversionTest {
+
+    private static final int REPETITIONS = 8;
+    private static final int PARALLELISM = 4;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testParallelConversionMatchesSerialConversion() throws IOException, URISyntaxException {
+        File[] configs = Paths.get(getClass().getResource("/sample-mule-configs").toURI()).toFile().listFiles();
+        Arrays.sort(configs);
+        // Copies of the samples, so that the same inputs are converted concurrently.
+        List<File> sourceFiles = new ArrayList<>();
+        for (int i = 0; i < REPETITIONS; i++) {
+            File sourceDir = temporaryFolder.newFolder("source" + i);
+            for (File config : configs) {
+                File sourceFile = new File(sourceDir, i + "_" + config.getName());
+                Files.copy(config.toPath(), sourceFile.toPath());
+                sourceFiles.add(sourceFile);
+            }
+        }
+        File serialDir = temporaryFolder.newFolder("serial");
+        File parallelDir = temporaryFolder.newFolder("parallel");
+
+        ConverterEngine engine = ConverterEngine.getInstance();
+        List<ConversionResult> serialResults = engine.convertAll(sourceFiles, serialDir.getPath(),
+                MuleToBalConvertExecutor::createBalModel, 1);
+        List<ConversionResult> parallelResults = engine.convertAll(sourceFiles, parallelDir.getPath(),
+                MuleToBalConvertExecutor::createBalModel, PARALLELISM);
+
+        assertEquals(sourceFiles.size(), parallelResults.size());
+        for (int i = 0; i < sourceFiles.size(); i++) {
+            ConversionResult serialResult = serialResults.get(i);
+            ConversionResult parallelResult = parallelResults.get(i);
+            assertEquals(serialResult.getSourceFile().getName(), serialResult.isSuccessful(),
+                    parallelResult.isSuccessful());
+            if (serialResult.isSuccessful()) {
+                File serialFile = new File(serialDir, serialResult.getBalFileName());
+                File parallelFile = new File(parallelDir, parallelResult.getBalFileName());
+                assertTrue(parallelFile.getName(), parallelFile.isFile());
+                assertArrayEquals(parallelFile.getName(), Files.readAllBytes(serialFile.toPath()),
+                        Files.readAllBytes(parallelFile.toPath()));
+            }
+        }
+    }
+}
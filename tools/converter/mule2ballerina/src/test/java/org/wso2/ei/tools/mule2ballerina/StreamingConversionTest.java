@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.ei.tools.mule2ballerina;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.ei.tools.converter.common.generator.BallerinaSourceGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that converting a config with {@code --streaming} generates the same ballerina source as converting it as a
+ * whole.
+ */
+public class StreamingConversionTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testStreamingConversionOfSamples() throws IOException, URISyntaxException {
+        for (File config : Paths.get(getClass().getResource("/sample-mule-configs").toURI()).toFile().listFiles()) {
+            assertEquals(config.getName(), convert(config, false), convert(config, true));
+        }
+    }
+
+    @Test
+    public void testStreamingConversionOfInterleavedConfigs() throws IOException, URISyntaxException {
+        File config = Paths.get(getClass().getResource("/streaming/interleavedConfigs.xml").toURI()).toFile();
+        File groupedConfig = Paths.get(getClass().getResource("/streaming/groupedConfigs.xml").toURI()).toFile();
+        String source = convert(config, true);
+        // Flows of a listener config create a single service, even if flows of another config are between them, the
+        // same as when the flows of each config are next to each other.
+        assertEquals(convert(groupedConfig, false), source);
+        assertEquals(source, 1, countOccurrences(source, "\"/a\""));
+        assertEquals(source, 1, countOccurrences(source, "\"/b\""));
+    }
+
+    private String convert(File config, boolean streaming) throws IOException {
+        File balFile = temporaryFolder.newFile();
+        new BallerinaSourceGenerator().generate(streaming ? MuleToBalConvertExecutor.createStreamingBalModel(config)
+                : MuleToBalConvertExecutor.createBalModel(config), balFile.getPath());
+        return new String(Files.readAllBytes(balFile.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static int countOccurrences(String source, String value) {
+        int count = 0;
+        for (int i = source.indexOf(value); i != -1; i = source.indexOf(value, i + value.length())) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.ei.tools.mule2ballerina.configreader;
+
+import org.junit.Test;
+import org.wso2.ei.tools.mule2ballerina.model.Comment;
+import org.wso2.ei.tools.mule2ballerina.model.Flow;
+import org.wso2.ei.tools.mule2ballerina.model.HttpListener;
+import org.wso2.ei.tools.mule2ballerina.model.HttpListenerConfig;
+import org.wso2.ei.tools.mule2ballerina.model.Payload;
+import org.wso2.ei.tools.mule2ballerina.model.Processor;
+import org.wso2.ei.tools.mule2ballerina.model.Root;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of reading mule configs into the intermediate object stack with the cursor based {@link ConfigReader}.
+ */
+public class ConfigReaderTest {
+
+    private static final String FLOWS_CONFIG = "/configreader/flows.xml";
+
+    @Test
+    public void testGlobalConfiguration() throws IOException {
+        Root root = read(new ConfigReader());
+
+        HttpListenerConfig config = (HttpListenerConfig) root.getConfigMap().get("HTTP_Listener_Configuration");
+        assertEquals("0.0.0.0", config.getHost());
+        assertEquals("8081", config.getPort());
+        assertEquals("/test", config.getBasePath());
+    }
+
+    @Test
+    public void testFlows() throws IOException {
+        Root root = read(new ConfigReader());
+
+        assertEquals(2, root.getFlowList().size());
+        Flow firstFlow = root.getFlowList().get(0);
+        assertEquals("firstFlow", firstFlow.getName());
+        assertEquals("/first", ((HttpListener) firstFlow.getFlowProcessors().get(0)).getPath());
+        assertEquals("\"first\"", ((Payload) firstFlow.getFlowProcessors().get(1)).getValue());
+        assertEquals(2, root.getServiceMap().get("HTTP_Listener_Configuration").size());
+        // A flow without an inbound connector is a private flow.
+        assertEquals("privateFlow", root.getPrivateFlowMap().get("privateFlow").getName());
+    }
+
+    @Test
+    public void testUnidentifiedElement() throws IOException {
+        ConfigReader configReader = new ConfigReader();
+        Root root = read(configReader);
+
+        assertEquals(Collections.singletonList("db:select"), configReader.getUnIdentifiedElements());
+        List<Processor> processors = root.getFlowList().get(1).getFlowProcessors();
+        assertEquals(3, processors.size());
+        assertTrue(((Comment) processors.get(1)).getComment().contains("db:select"));
+    }
+
+    @Test
+    public void testFlowListener() throws IOException {
+        ConfigReader configReader = new ConfigReader();
+        List<String> completedFlows = new ArrayList<>();
+        configReader.setFlowListener(flow -> {
+            completedFlows.add(flow.getName());
+            assertEquals(flow.getName().equals("firstFlow") ? 2 : 3, flow.getFlowProcessors().size());
+        });
+        Root root = read(configReader);
+
+        assertEquals(2, completedFlows.size());
+        assertEquals("firstFlow", completedFlows.get(0));
+        assertEquals("secondFlow", completedFlows.get(1));
+        // Completed main flows are handed over, private flows are kept for flow references.
+        assertTrue(root.getFlowList().isEmpty());
+        assertTrue(root.getServiceMap().get("HTTP_Listener_Configuration").isEmpty());
+        assertEquals(1, root.getPrivateFlowMap().size());
+    }
+
+    @Test
+    public void testFlowNames() throws IOException {
+        ConfigReader configReader = new ConfigReader();
+        List<String> completedFlows = new ArrayList<>();
+        configReader.setFlowListener(flow -> completedFlows.add(flow.getName()));
+        configReader.setFlowNames(Collections.singleton("secondFlow"));
+        Root root = read(configReader);
+
+        // Only flows of the given names are read, global configurations and other flows are skipped.
+        assertEquals(Collections.singletonList("secondFlow"), completedFlows);
+        assertTrue(root.getConfigMap().isEmpty());
+        assertTrue(root.getPrivateFlowMap().isEmpty());
+    }
+
+    @Test
+    public void testMainFlowBodiesSkipped() throws IOException {
+        ConfigReader configReader = new ConfigReader();
+        configReader.setMainFlowBodiesSkipped(true);
+        Root root = read(configReader);
+
+        // Main flows are read up to their inbound processor, private flows are read as a whole.
+        for (Flow flow : root.getFlowList()) {
+            assertEquals(1, flow.getFlowProcessors().size());
+            assertEquals("HTTP_Listener_Configuration", flow.getInboundName());
+        }
+        assertEquals(2, root.getFlowList().size());
+        assertEquals(1, root.getPrivateFlowMap().get("privateFlow").getFlowProcessors().size());
+        assertTrue(configReader.getUnIdentifiedElements().isEmpty());
+    }
+
+    private Root read(ConfigReader configReader) throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream(FLOWS_CONFIG)) {
+            configReader.readXML(inputStream);
+        }
+        return configReader.getRootObj();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.ei.tools.mule2ballerina.elementmapper;
+
+import org.junit.Test;
+import org.wso2.ei.tools.mule2ballerina.model.BaseObject;
+
+import java.lang.reflect.Field;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests that the attribute bindings of {@link Element} set the same properties of the intermediate objects as binding
+ * the attributes by reflection, which sets the field named by {@link Attribute#getProperty()} if the class declares it.
+ */
+public class ElementTest {
+
+    @Test
+    public void testBindingsMatchReflectiveBinding() throws IllegalAccessException {
+        for (Element element : Element.values()) {
+            for (Attribute attribute : Attribute.values()) {
+                String name = element + " " + attribute.getAttribute();
+                String value = attribute.getAttribute() + "-value";
+                Field field = getDeclaredField(element.newInstance().getClass(), attribute.getProperty());
+
+                BaseObject intermediateObject = element.newInstance();
+                String[] qualifiedName = splitQualifiedName(attribute.getAttribute());
+                boolean mapped = element.setAttribute(intermediateObject, qualifiedName[0], qualifiedName[1], value);
+
+                assertEquals(name, field != null, mapped);
+                if (field != null) {
+                    field.setAccessible(true);
+                    assertEquals(name, value, field.get(intermediateObject));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testElementLookup() {
+        for (Element element : Element.values()) {
+            String[] qualifiedName = splitQualifiedName(element.getValue());
+            assertSame(element, Element.get(qualifiedName[0], qualifiedName[1]));
+        }
+        assertNull(Element.get(null, "listener"));
+        assertNull(Element.get("http", "unknown"));
+    }
+
+    @Test
+    public void testUnmappedAttribute() {
+        BaseObject intermediateObject = Element.FLOW.newInstance();
+
+        assertEquals(false, Element.FLOW.setAttribute(intermediateObject, "doc", "name", "flow"));
+        assertEquals(false, Element.FLOW.setAttribute(intermediateObject, null, "host", "localhost"));
+    }
+
+    private static Field getDeclaredField(Class<?> intermediateClass, String property) {
+        try {
+            return intermediateClass.getDeclaredField(property);
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    private static String[] splitQualifiedName(String qualifiedName) {
+        int separatorIndex = qualifiedName.indexOf(':');
+        return new String[] { separatorIndex == -1 ? null : qualifiedName.substring(0, separatorIndex),
+                qualifiedName.substring(separatorIndex + 1) };
+    }
+}
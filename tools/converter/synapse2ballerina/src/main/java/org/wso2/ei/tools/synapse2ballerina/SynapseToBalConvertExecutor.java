@@ -19,35 +19,207 @@
 package org.wso2.ei.tools.synapse2ballerina;
 
 import org.ballerinalang.model.BallerinaFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.ei.tools.converter.common.ConverterDaemon;
+import org.wso2.ei.tools.converter.common.ConverterEngine;
+import org.wso2.ei.tools.converter.common.ConverterEngine.ConversionResult;
+import org.wso2.ei.tools.converter.common.Utils;
 import org.wso2.ei.tools.converter.common.generator.BallerinaSourceGenerator;
 import org.wso2.ei.tools.synapse2ballerina.builder.ASTBuilder;
 import org.wso2.ei.tools.synapse2ballerina.model.API;
+import org.wso2.ei.tools.synapse2ballerina.model.Definitions;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
 import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 
 /**
  * Main class to start the converter
  */
 public class SynapseToBalConvertExecutor {
-    public static void main(String[] args) throws Exception {
 
-        String synapseInConfig = args[0];
+    private static Logger logger = LoggerFactory.getLogger(SynapseToBalConvertExecutor.class);
 
-        JAXBContext jaxbContext = JAXBContext.newInstance(API.class);
+    private static final String BAL_EXTENSION = ".bal";
+    // API names are used as ballerina file names, so they may not contain path separators.
+    private static final Pattern API_FILE_NAME = Pattern.compile("[\\w-][\\w.-]*");
 
-        Unmarshaller jaxbUnmarshaller = jaxbContext.createUnmarshaller();
-        //todo change the root element to 'definitions'
-        API api = (API) jaxbUnmarshaller.unmarshal(new File(synapseInConfig));
+    private static JAXBContext jaxbContext;
 
-        BallerinaFile ballerinaFile = ASTBuilder.build(api);
+    public static void main(String[] args) {
 
-        BallerinaSourceGenerator sourceGenerator = new BallerinaSourceGenerator();
-        String balOutFile = args[1];
-        sourceGenerator.generate(ballerinaFile, balOutFile);
+        int daemonPort = ConverterDaemon.getPort(args);
+        if (daemonPort != -1) {
+            try {
+                new ConverterDaemon(SynapseToBalConvertExecutor::createBalModel, Utils.getParallelism(args),
+                        ConverterDaemon.getOutputRoot(args))
+                        .serve(daemonPort, ConverterDaemon.getTokenFile(daemonPort, args));
+            } catch (IOException e) {
+                logger.error("Unable to run the converter daemon.", e);
+                System.exit(1);
+            }
+            return;
+        }
 
+        List<String> positionalArgs = Utils.getPositionalArgs(args);
+        if (positionalArgs.isEmpty()) {
+            logger.error("Please provide the synapse config file");
+            System.exit(-1);
+        }
+        File synapseInConfig = new File(positionalArgs.get(0));
+        String balOut = positionalArgs.size() > 1 ? positionalArgs.get(1) : null;
+
+        try {
+            Object synapseConfig = unmarshal(synapseInConfig);
+            if (synapseConfig instanceof Definitions) {
+                if (balOut == null) {
+                    balOut = Utils.getPath(synapseInConfig.getAbsoluteFile().getParentFile(), null).toString();
+                }
+                List<API> apis = ((Definitions) synapseConfig).getApiList();
+                checkAPINames(synapseInConfig, apis);
+                // Each API is converted to a ballerina file named after the API, in the output directory.
+                Files.createDirectories(Paths.get(balOut));
+                List<ConversionResult> results = convertAPIs(synapseInConfig, apis, balOut,
+                        Utils.getParallelism(args));
+                if (ConverterEngine.logResults(results) > 0) {
+                    System.exit(1);
+                }
+            } else {
+                if (balOut == null) {
+                    balOut = ConverterEngine.getBalFileName(synapseInConfig);
+                }
+                BallerinaSourceGenerator sourceGenerator = new BallerinaSourceGenerator();
+                sourceGenerator.generate(ASTBuilder.build(getAPI(synapseInConfig, synapseConfig)), balOut);
+            }
+        } catch (IOException e) {
+            logger.error("Unable to generate ballerina file.", e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Check that the APIs of a synapse configuration can be written to ballerina files named after them, in the
+     * output directory. Names are compared ignoring case, as files differing only in case are the same file on some
+     * file systems.
+     *
+     * @param synapseInConfig synapse configuration file of the APIs
+     * @param apis            APIs to convert
+     * @throws IOException if an API name is not a plain file name or is used by another API
+     */
+    static void checkAPINames(File synapseInConfig, List<API> apis) throws IOException {
+        Set<String> fileNames = new HashSet<>();
+        for (API api : apis) {
+            String name = api.getName();
+            if (name == null || !API_FILE_NAME.matcher(name).matches() || name.contains("..")) {
+                throw new IOException("API name '" + name + "' in " + synapseInConfig.getPath()
+                        + " cannot be used as a ballerina file name");
+            }
+            if (!fileNames.add(name.toLowerCase(Locale.ROOT))) {
+                throw new IOException("More than one API in " + synapseInConfig.getPath() + " is named '" + name
+                        + "', but a ballerina file is created per API name");
+            }
+        }
     }
 
+    /**
+     * Convert the APIs of a synapse configuration in parallel, each with its own AST builder.
+     *
+     * @param synapseInConfig synapse configuration file of the APIs
+     * @param apis            APIs to convert
+     * @param destinationDir  directory to write the ballerina files
+     * @param parallelism     number of threads converting APIs
+     * @return results of the APIs, in the order of the APIs
+     */
+    private static List<ConversionResult> convertAPIs(File synapseInConfig, List<API> apis, String destinationDir,
+            int parallelism) {
+        ConverterEngine converterEngine = ConverterEngine.getInstance();
+        ExecutorService executorService = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<ConversionResult>> futures = new ArrayList<>();
+            for (API api : apis) {
+                futures.add(executorService.submit(() -> converterEngine.convert(synapseInConfig,
+                        destinationDir + File.separator + api.getName() + BAL_EXTENSION,
+                        sourceFile -> ASTBuilder.build(api))));
+            }
+            List<ConversionResult> results = new ArrayList<>();
+            for (Future<ConversionResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while converting APIs", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error occurred when converting APIs", e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static synchronized JAXBContext getJAXBContext() throws JAXBException {
+        if (jaxbContext == null) {
+            jaxbContext = JAXBContext.newInstance(API.class, Definitions.class);
+        }
+        return jaxbContext;
+    }
 
+    /**
+     * Map a synapse configuration, either a single API or definitions of any number of APIs.
+     *
+     * @param synapseInConfig synapse configuration file
+     * @return {@link API} or {@link Definitions}
+     * @throws IOException if mapping the configuration fails
+     */
+    private static Object unmarshal(File synapseInConfig) throws IOException {
+        try {
+            Unmarshaller jaxbUnmarshaller = getJAXBContext().createUnmarshaller();
+            return jaxbUnmarshaller.unmarshal(synapseInConfig);
+        } catch (JAXBException e) {
+            throw new IOException("Error occurred while mapping the synapse config: " + synapseInConfig.getPath(), e);
+        }
+    }
+
+    /**
+     * Get the API of a synapse configuration which is not definitions.
+     *
+     * @param synapseInConfig synapse configuration file
+     * @param synapseConfig   mapped synapse configuration
+     * @return API of the configuration
+     * @throws IOException if the root element of the configuration is not an API
+     */
+    private static API getAPI(File synapseInConfig, Object synapseConfig) throws IOException {
+        if (!(synapseConfig instanceof API)) {
+            throw new IOException("Unsupported root element in the synapse config: " + synapseInConfig.getPath()
+                    + ". Only an api or definitions element can be converted.");
+        }
+        return (API) synapseConfig;
+    }
+
+    private static BallerinaFile createBalModel(File synapseInConfig) throws IOException {
+        Object synapseConfig = unmarshal(synapseInConfig);
+        if (synapseConfig instanceof Definitions) {
+            List<API> apis = ((Definitions) synapseConfig).getApiList();
+            if (apis.size() != 1) {
+                throw new IOException("A ballerina file is created per API, but " + synapseInConfig.getPath()
+                        + " has " + apis.size() + " APIs. Convert it with an output directory instead.");
+            }
+            return ASTBuilder.build(apis.get(0));
+        }
+        return ASTBuilder.build(getAPI(synapseInConfig, synapseConfig));
+    }
 }
@@ -31,22 +31,34 @@ import java.util.Map;
 import java.util.Set;
 
 /**
- * Maps the synapse to ballerina
+ * Maps the synapse to ballerina. An instance holds the state of converting a single API, so APIs can be converted
+ * concurrently, each with its own builder.
  */
 public class ASTBuilder {
 
-    private static String serviceName;
+    private final String serviceName;
 
-    private static int resourceParamNameCount = 0;
-    private static Map<String, Object> parameters = new HashMap<>();
-    private static Set<String> importKeys = new HashSet<>();
-    private static BallerinaASTModelBuilder ballerinaASTModelBuilder = new BallerinaASTModelBuilder();
-    private static int serviceAnnotationCount = 0;
+    private int resourceParamNameCount = 0;
+    private final Map<String, Object> parameters = new HashMap<>();
+    private final Set<String> importKeys = new HashSet<>();
+    private final BallerinaASTModelBuilder ballerinaASTModelBuilder = new BallerinaASTModelBuilder();
+    private int serviceAnnotationCount = 0;
 
+    private ASTBuilder(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    /**
+     * Build the ballerina model of an API, as a service.
+     *
+     * @param api synapse API
+     * @return ballerina model
+     */
     public static BallerinaFile build(API api) {
-        serviceName = api.getName();
-        ballerinaASTModelBuilder = new BallerinaASTModelBuilder();
+        return new ASTBuilder(api.getName()).buildService(api);
+    }
 
+    private BallerinaFile buildService(API api) {
         ballerinaASTModelBuilder.startService();
 
         addImport(Constants.BLANG_HTTP);
@@ -60,12 +72,12 @@ public class ASTBuilder {
             buildResource(resource);
         }
 
-        ballerinaASTModelBuilder.endOfService(api.getName());
+        ballerinaASTModelBuilder.endOfService(serviceName);
 
         return ballerinaASTModelBuilder.buildBallerinaFile();
     }
 
-    private static void buildResource(Resource resource) {
+    private void buildResource(Resource resource) {
         ballerinaASTModelBuilder.startResource();
 
         ballerinaASTModelBuilder.addTypes(Constants.BLANG_TYPE_MESSAGE); //type of the parameter
@@ -90,14 +102,32 @@ public class ASTBuilder {
         ballerinaASTModelBuilder.endOfResource(serviceName + "Resource", resourceAnnotationCount);
     }
 
-    private static void buildSequence(Sequence sequence) {
+    private void buildSequence(Sequence sequence) {
         parameters.put(Constants.RESPONSE_VAR_NAME, Constants.BLANG_RES_VARIABLE_NAME);
         for (Mediator mediator : sequence.getMediatorList()) {
-            mediator.build(ballerinaASTModelBuilder, parameters);
+            mediator.build(this);
         }
     }
 
-    public static void addImport(String packageName) {
+    public BallerinaASTModelBuilder getBallerinaASTModelBuilder() {
+        return ballerinaASTModelBuilder;
+    }
+
+    /**
+     * Get parameters shared by the mediators of the API, such as the response variable name.
+     *
+     * @return parameters against their names
+     */
+    public Map<String, Object> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Import a ballerina package to the API, if it is not imported already.
+     *
+     * @param packageName name of the builtin package, eg: http
+     */
+    public void addImport(String packageName) {
         if (importKeys.add(packageName)) {
             ballerinaASTModelBuilder
                     .addImportPackage(ballerinaASTModelBuilder.getBallerinaPackageMap().get(packageName), null);
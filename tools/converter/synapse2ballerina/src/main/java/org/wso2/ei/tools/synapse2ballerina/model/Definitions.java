@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.ei.tools.synapse2ballerina.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Represents synapse definitions, the root of a synapse configuration with any number of APIs
+ */
+@XmlRootElement(name = "definitions",
+                namespace = "http://ws.apache.org/ns/synapse")
+public class Definitions {
+
+    private List<API> apiList = new ArrayList<>();
+
+    public List<API> getApiList() {
+        return apiList;
+    }
+
+    @XmlElement(name = "api",
+                namespace = "http://ws.apache.org/ns/synapse",
+                type = API.class)
+    public void setApi(API api) {
+        this.apiList.add(api);
+    }
+
+}
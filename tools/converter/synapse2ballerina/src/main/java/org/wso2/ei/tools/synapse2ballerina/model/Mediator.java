@@ -18,15 +18,18 @@
 
 package org.wso2.ei.tools.synapse2ballerina.model;
 
-import org.wso2.ei.tools.converter.common.builder.BallerinaASTModelBuilder;
-
-import java.util.Map;
+import org.wso2.ei.tools.synapse2ballerina.builder.ASTBuilder;
 
 /**
  * Represents synapse's mediator
  */
 public interface Mediator {
 
-    void build(BallerinaASTModelBuilder ballerinaASTModelBuilder, Map<String, Object> parameters);
+    /**
+     * Add the ballerina statements of the mediator to the API being built.
+     *
+     * @param astBuilder builder of the API the mediator belongs to
+     */
+    void build(ASTBuilder astBuilder);
 
 }
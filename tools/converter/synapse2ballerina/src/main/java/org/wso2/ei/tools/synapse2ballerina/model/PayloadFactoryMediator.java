@@ -19,6 +19,7 @@
 package org.wso2.ei.tools.synapse2ballerina.model;
 
 import org.wso2.ei.tools.converter.common.builder.BallerinaASTModelBuilder;
+import org.wso2.ei.tools.synapse2ballerina.builder.ASTBuilder;
 import org.wso2.ei.tools.synapse2ballerina.builder.Constants;
 
 import java.io.StringReader;
@@ -33,8 +34,6 @@ import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
-import static org.wso2.ei.tools.synapse2ballerina.builder.ASTBuilder.addImport;
-
 /**
  * Represents synapse's payload factory mediator
  */
@@ -65,7 +64,9 @@ public class PayloadFactoryMediator implements Mediator {
     }
 
     @Override
-    public void build(BallerinaASTModelBuilder ballerinaASTModelBuilder, Map<String, Object> parameters) {
+    public void build(ASTBuilder astBuilder) {
+        BallerinaASTModelBuilder ballerinaASTModelBuilder = astBuilder.getBallerinaASTModelBuilder();
+        Map<String, Object> parameters = astBuilder.getParameters();
         String responseVariableName = (String) parameters.get(Constants.RESPONSE_VAR_NAME);
 
         ballerinaASTModelBuilder.addTypes(Constants.BLANG_TYPE_MESSAGE);
@@ -77,7 +78,7 @@ public class PayloadFactoryMediator implements Mediator {
         ballerinaASTModelBuilder.addTypes(getMediaType());
         ballerinaASTModelBuilder.createVariable("payload", true);
 
-        addImport(Constants.BLANG_PKG_MESSAGES);
+        astBuilder.addImport(Constants.BLANG_PKG_MESSAGES);
         ballerinaASTModelBuilder
                 .createNameReference(Constants.BLANG_PKG_MESSAGES, Constants.BLANG_PKG_MESSAGES_SET_XML_PAYLOAD);
 
@@ -93,16 +94,15 @@ public class PayloadFactoryMediator implements Mediator {
 
     }
 
-    private static class FormatHandler implements DomHandler<String, StreamResult> {
+    static class FormatHandler implements DomHandler<String, StreamResult> {
 
         private static final String FORMAT_START_TAG = "<format xmlns=\"http://ws.apache.org/ns/synapse\">";
         private static final String FORMAT_END_TAG = "</format>";
 
-        private StringWriter xmlWriter = new StringWriter();
-
+        // A handler is shared by all unmarshallers of a JAXB context, so each element is written to its own writer.
         @Override
         public StreamResult createUnmarshaller(ValidationEventHandler errorHandler) {
-            return new StreamResult(xmlWriter);
+            return new StreamResult(new StringWriter());
         }
 
         @Override
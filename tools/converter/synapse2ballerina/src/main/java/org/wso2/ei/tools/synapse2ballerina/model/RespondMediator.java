@@ -19,6 +19,7 @@
 package org.wso2.ei.tools.synapse2ballerina.model;
 
 import org.wso2.ei.tools.converter.common.builder.BallerinaASTModelBuilder;
+import org.wso2.ei.tools.synapse2ballerina.builder.ASTBuilder;
 import org.wso2.ei.tools.synapse2ballerina.builder.Constants;
 
 import java.util.Map;
@@ -31,7 +32,9 @@ import javax.xml.bind.annotation.XmlRootElement;
 public class RespondMediator implements Mediator {
 
     @Override
-    public void build(BallerinaASTModelBuilder ballerinaASTModelBuilder, Map<String, Object> parameters) {
+    public void build(ASTBuilder astBuilder) {
+        BallerinaASTModelBuilder ballerinaASTModelBuilder = astBuilder.getBallerinaASTModelBuilder();
+        Map<String, Object> parameters = astBuilder.getParameters();
         String variableName = (String) parameters.get(Constants.RESPONSE_VAR_NAME);
 
         ballerinaASTModelBuilder.createNameReference(null, variableName);
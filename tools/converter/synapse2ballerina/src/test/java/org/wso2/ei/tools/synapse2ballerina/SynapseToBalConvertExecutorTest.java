@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.ei.tools.synapse2ballerina;
+
+import org.junit.Test;
+import org.wso2.ei.tools.synapse2ballerina.model.API;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests of checking the names of the APIs of a synapse configuration, which name their ballerina files.
+ */
+public class SynapseToBalConvertExecutorTest {
+
+    private static final File SYNAPSE_CONFIG = new File("definitions.xml");
+
+    @Test
+    public void testUniqueAPINames() throws IOException {
+        SynapseToBalConvertExecutor.checkAPINames(SYNAPSE_CONFIG, apis("hello", "payload_Sample-1.0"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testAPINameWithPathSeparator() throws IOException {
+        SynapseToBalConvertExecutor.checkAPINames(SYNAPSE_CONFIG, apis("hello", "../hello"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testAPINameWithParentReference() throws IOException {
+        SynapseToBalConvertExecutor.checkAPINames(SYNAPSE_CONFIG, apis(".."));
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingAPIName() throws IOException {
+        SynapseToBalConvertExecutor.checkAPINames(SYNAPSE_CONFIG, apis((String) null));
+    }
+
+    @Test(expected = IOException.class)
+    public void testAPINamesDifferingInCase() throws IOException {
+        SynapseToBalConvertExecutor.checkAPINames(SYNAPSE_CONFIG, apis("hello", "Hello"));
+    }
+
+    private static List<API> apis(String... names) {
+        List<API> apis = new ArrayList<>();
+        for (String name : names) {
+            API api = new API();
+            api.setName(name);
+            apis.add(api);
+        }
+        return apis;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.ei.tools.synapse2ballerina.model;
+
+import org.junit.Test;
+import org.wso2.ei.tools.synapse2ballerina.model.PayloadFactoryMediator.FormatHandler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.xml.transform.stream.StreamResult;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+/**
+ * Tests that the format handler of {@link PayloadFactoryMediator}, which JAXB shares between all unmarshallers,
+ * gives each payload factory element its own payload.
+ */
+public class PayloadFactoryMediatorTest {
+
+    private static final String FORMAT_START_TAG = "<format xmlns=\"http://ws.apache.org/ns/synapse\">";
+    private static final String FORMAT_END_TAG = "</format>";
+    private static final int ELEMENTS = 64;
+    private static final int PARALLELISM = 8;
+
+    @Test
+    public void testEachElementIsWrittenToItsOwnWriter() throws IOException {
+        FormatHandler formatHandler = new FormatHandler();
+        StreamResult first = formatHandler.createUnmarshaller(null);
+        StreamResult second = formatHandler.createUnmarshaller(null);
+        assertNotSame(first.getWriter(), second.getWriter());
+
+        // The second element is read before the first one is completed, as with a nested or concurrent unmarshal.
+        writeFormat(first, "<a>first</a>");
+        writeFormat(second, "<b>second</b>");
+        assertEquals("<b>second</b>", formatHandler.getElement(second));
+        assertEquals("<a>first</a>", formatHandler.getElement(first));
+    }
+
+    @Test
+    public void testConcurrentElements() throws InterruptedException, ExecutionException {
+        FormatHandler formatHandler = new FormatHandler();
+        ExecutorService executorService = Executors.newFixedThreadPool(PARALLELISM);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < ELEMENTS; i++) {
+                String payload = "<payload>" + i + "</payload>";
+                futures.add(executorService.submit(() -> {
+                    StreamResult result = formatHandler.createUnmarshaller(null);
+                    writeFormat(result, payload);
+                    return formatHandler.getElement(result);
+                }));
+            }
+            for (int i = 0; i < ELEMENTS; i++) {
+                assertEquals("<payload>" + i + "</payload>", futures.get(i).get());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static void writeFormat(StreamResult result, String payload) throws IOException {
+        result.getWriter().write(FORMAT_START_TAG + payload + FORMAT_END_TAG);
+    }
+}
@@ -0,0 +1,151 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.wso2.integration.ballerina.constants.Constants.CODE_SEGMENT_BEGIN;
+import static org.wso2.integration.ballerina.constants.Constants.CODE_SEGMENT_END;
+import static org.wso2.integration.ballerina.constants.Constants.LICENCE_LAST_LINE;
+import static org.wso2.integration.ballerina.constants.Constants.NEW_LINE;
+
+/**
+ * Synthetic guides and code files used by the benchmarks.
+ */
+public final class BenchmarkData {
+    public static final String CODE_FILE_NAME = "service.bal";
+    public static final int SEGMENT_COUNT = 100;
+    public static final int LINES_PER_SEGMENT = 50;
+    public static final String HEADING = "# Synthetic guide";
+
+    private static final String LICENCE_HEADER =
+            "// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved." + NEW_LINE
+                    + "//" + NEW_LINE
+                    + "// WSO2 Inc. licenses this file to you under the Apache License," + NEW_LINE
+                    + "// Version 2.0 (the \"License\"); you may not use this file except" + NEW_LINE
+                    + "// in compliance with the License." + NEW_LINE
+                    + "// You may obtain a copy of the License at" + NEW_LINE
+                    + "//" + NEW_LINE
+                    + "// http://www.apache.org/licenses/LICENSE-2.0" + NEW_LINE
+                    + "//" + NEW_LINE
+                    + "// Unless required by applicable law or agreed to in writing," + NEW_LINE
+                    + "// software distributed under the License is distributed on an" + NEW_LINE
+                    + "// \"AS IS\" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY" + NEW_LINE
+                    + "// KIND, either express or implied.  See the License for the" + NEW_LINE
+                    + "// specific language governing permissions and limitations" + NEW_LINE
+                    + LICENCE_LAST_LINE + NEW_LINE;
+
+    private BenchmarkData() {}
+
+    /**
+     * Get a Ballerina code file with a licence header and {@link #SEGMENT_COUNT} code segments.
+     *
+     * @return code file content
+     */
+    public static String getCodeFileContent() {
+        StringBuilder code = new StringBuilder(LICENCE_HEADER).append(NEW_LINE)
+                .append("import ballerina/http;").append(NEW_LINE).append(NEW_LINE);
+        for (int segment = 0; segment < SEGMENT_COUNT; segment++) {
+            code.append(CODE_SEGMENT_BEGIN).append(getSegmentName(segment)).append(NEW_LINE)
+                    .append("service service_").append(segment).append(" on new http:Listener(")
+                    .append(9090 + segment).append(") {").append(NEW_LINE);
+            for (int line = 0; line < LINES_PER_SEGMENT; line++) {
+                code.append("    int value_").append(line).append(" = ").append(line).append(" * ")
+                        .append(segment).append(";").append(NEW_LINE);
+            }
+            code.append("}").append(NEW_LINE).append(CODE_SEGMENT_END).append(getSegmentName(segment))
+                    .append(NEW_LINE).append(NEW_LINE);
+        }
+        return code.toString();
+    }
+
+    /**
+     * Get a guide including the code file the given number of times, alternating between including the whole file
+     * and including one of its code segments.
+     *
+     * @param includeCount number of include code lines
+     * @return guide content
+     */
+    public static String getGuideContent(int includeCount) {
+        StringBuilder guide = new StringBuilder(HEADING).append(NEW_LINE).append(NEW_LINE);
+        for (int include = 0; include < includeCount; include++) {
+            guide.append("## Step ").append(include).append(NEW_LINE).append(NEW_LINE)
+                    .append("Lorem ipsum dolor sit amet, donec lectus, cubilia condimentum ac odio justo lobortis.")
+                    .append(NEW_LINE).append(NEW_LINE);
+            if (include % 2 == 0) {
+                guide.append("<!-- INCLUDE_CODE: ").append(CODE_FILE_NAME).append(" -->");
+            } else {
+                guide.append("<!-- INCLUDE_CODE_SEGMENT: { file: ").append(CODE_FILE_NAME).append(", segment: ")
+                        .append(getSegmentName(include % SEGMENT_COUNT)).append(" } -->");
+            }
+            guide.append(NEW_LINE).append(NEW_LINE);
+        }
+        return guide.toString();
+    }
+
+    /**
+     * Get name of a code segment of the code file.
+     *
+     * @param segment index of the segment
+     * @return segment name
+     */
+    public static String getSegmentName(int segment) {
+        return "segment_" + segment;
+    }
+
+    /**
+     * Create a temporary directory with a README.md guide and the code file it includes.
+     *
+     * @param includeCount number of include code lines in the guide
+     * @return README.md file of the guide
+     * @throws IOException if writing the files fails
+     */
+    public static File createGuide(int includeCount) throws IOException {
+        File directory = Files.createTempDirectory("synthetic-guide").toFile();
+        writeFile(new File(directory, CODE_FILE_NAME), getCodeFileContent());
+        File readme = new File(directory, "README.md");
+        writeFile(readme, getGuideContent(includeCount));
+        return readme;
+    }
+
+    /**
+     * Delete a directory created by {@link #createGuide(int)}.
+     *
+     * @param directory directory to delete
+     */
+    public static void deleteGuide(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private static void writeFile(File file, String content) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write(content);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.integration.ballerina.BenchmarkData;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the util functions used when processing a README.md file, on a large code file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilsBenchmark {
+    private String code;
+    private File codeFile;
+    private IncludeCodeCache.CodeFile cachedCodeFile;
+    private String segmentName;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        File readme = BenchmarkData.createGuide(0);
+        codeFile = new File(readme.getParentFile(), BenchmarkData.CODE_FILE_NAME);
+        StringWriter writer = new StringWriter();
+        Utils.writeCodeWithoutLicenceHeader(codeFile, writer);
+        code = writer.toString();
+        cachedCodeFile = new IncludeCodeCache().get(codeFile);
+        segmentName = BenchmarkData.getSegmentName(BenchmarkData.SEGMENT_COUNT / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.deleteGuide(codeFile.getParentFile());
+    }
+
+    /**
+     * Stream the code file without its licence header, as done for each whole code file include.
+     */
+    @Benchmark
+    public StringWriter writeCodeWithoutLicenceHeader() throws IOException {
+        StringWriter writer = new StringWriter();
+        Utils.writeCodeWithoutLicenceHeader(codeFile, writer);
+        return writer;
+    }
+
+    @Benchmark
+    public String getMarkdownCodeBlockWithCodeType() {
+        return Utils.getMarkdownCodeBlockWithCodeType(codeFile.getPath(), code);
+    }
+
+    @Benchmark
+    public String getPostFrontMatter() {
+        return Utils.getPostFrontMatter(BenchmarkData.HEADING);
+    }
+
+    /**
+     * Read and index the code file, as done for the first include of a code file in a build.
+     */
+    @Benchmark
+    public IncludeCodeCache.CodeFile parseCodeFile() {
+        return new IncludeCodeCache().get(codeFile);
+    }
+
+    /**
+     * Look up a code segment of an already parsed code file.
+     */
+    @Benchmark
+    public String getCodeSegment() {
+        return cachedCodeFile.getSegment(segmentName);
+    }
+}
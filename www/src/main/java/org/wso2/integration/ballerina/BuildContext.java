@@ -0,0 +1,127 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina;
+
+import org.wso2.integration.ballerina.utils.BuildManifest;
+import org.wso2.integration.ballerina.utils.BuildMetrics;
+import org.wso2.integration.ballerina.utils.IncludeCodeCache;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.wso2.integration.ballerina.constants.Constants.GUIDE_TEMPLATES_DIR;
+
+/**
+ * State shared by all files processed in a single site build.
+ */
+class BuildContext {
+    private final BuildManifest previousManifest;
+    private final BuildManifest manifest;
+    private final String outputDirectory;
+    private final boolean trackingInputs;
+    private final IncludeCodeCache includeCodeCache = new IncludeCodeCache();
+    private final BuildMetrics metrics = new BuildMetrics();
+    private final Set<File> resourceOutputs = Collections.newSetFromMap(new ConcurrentHashMap<File, Boolean>());
+
+    /**
+     * Create build context.
+     *
+     * @param previousManifest manifest of the previous build, empty manifest to build all files
+     */
+    BuildContext(BuildManifest previousManifest) {
+        this(previousManifest, new BuildManifest());
+    }
+
+    /**
+     * Create build context recording processed files in the given manifest.
+     *
+     * @param previousManifest manifest of the previous build
+     * @param manifest         manifest to record processed files
+     */
+    BuildContext(BuildManifest previousManifest, BuildManifest manifest) {
+        this(previousManifest, manifest, GUIDE_TEMPLATES_DIR, true);
+    }
+
+    /**
+     * Create build context writing generated content to the given directory instead of the hugo content directory.
+     *
+     * @param previousManifest manifest of the previous build
+     * @param manifest         manifest to record processed files
+     * @param outputDirectory  directory to write generated content
+     * @param trackingInputs   whether content hashes and resources are recorded in the manifest, which is only
+     *                         needed by incremental builds and the watch mode
+     */
+    BuildContext(BuildManifest previousManifest, BuildManifest manifest, String outputDirectory,
+            boolean trackingInputs) {
+        this.previousManifest = previousManifest;
+        this.manifest = manifest;
+        this.outputDirectory = outputDirectory;
+        this.trackingInputs = trackingInputs;
+    }
+
+    BuildManifest getPreviousManifest() {
+        return previousManifest;
+    }
+
+    BuildManifest getManifest() {
+        return manifest;
+    }
+
+    boolean isTrackingInputs() {
+        return trackingInputs;
+    }
+
+    IncludeCodeCache getIncludeCodeCache() {
+        return includeCodeCache;
+    }
+
+    BuildMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Record a resource file written or kept in the output directory.
+     *
+     * @param outputFile resource file in the output directory
+     */
+    void addResourceOutput(File outputFile) {
+        resourceOutputs.add(outputFile);
+    }
+
+    Set<File> getResourceOutputs() {
+        return resourceOutputs;
+    }
+
+    String getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    /**
+     * Get the file to write generated content, which is published to the given path of the hugo content directory.
+     *
+     * @param contentPath path in the hugo content directory
+     * @return file in the output directory
+     */
+    File getOutputFile(String contentPath) {
+        Path relativePath = Paths.get(GUIDE_TEMPLATES_DIR).relativize(Paths.get(contentPath));
+        return Paths.get(outputDirectory).resolve(relativePath).toFile();
+    }
+}
@@ -0,0 +1,242 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina;
+
+import org.wso2.integration.ballerina.utils.ServiceException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import static org.wso2.integration.ballerina.constants.Constants.CONTENT_PREVIOUS_DIR;
+import static org.wso2.integration.ballerina.constants.Constants.CONTENT_STAGING_DIR;
+import static org.wso2.integration.ballerina.constants.Constants.GUIDES_DIR;
+import static org.wso2.integration.ballerina.constants.Constants.GUIDE_TEMPLATES_DIR;
+import static org.wso2.integration.ballerina.constants.Constants.INDEX_MD;
+import static org.wso2.integration.ballerina.constants.Constants.INTEGRATION_TUTORIALS_DIR;
+import static org.wso2.integration.ballerina.constants.Constants.INTRO_DIR;
+import static org.wso2.integration.ballerina.utils.Utils.copyFileIfChanged;
+import static org.wso2.integration.ballerina.utils.Utils.deleteDirectory;
+
+/**
+ * Publishes a full site build to the hugo content directory. The build is generated in a staging directory next to the
+ * content directory, so that hugo keeps serving the previous content until the new content is complete. The staging
+ * directory is seeded with hard links to the current content, so that unchanged resources are not copied again. The
+ * directories are then swapped with two renames, keeping the previous content for a rollback. Content is missing
+ * between the renames, and is moved back if the second rename fails. Site watchers postpone rebuilds in that time,
+ * as the content directory written would make the second rename fail.
+ */
+class ContentPublisher {
+    private static final Logger logger = Logger.getLogger(ContentPublisher.class.getName());
+
+    private final Path contentDirectory;
+    private final Path stagingDirectory;
+    private final Path previousDirectory;
+    private final Path guidesDirectory;
+    private final Path integrationTutorialsDirectory;
+    private final Path introDirectory;
+    private final List<Path> seededResources = new ArrayList<>();
+    private final int parallelism;
+
+    /**
+     * Create a publisher.
+     *
+     * @param parallelism number of threads deleting files of old directories
+     */
+    ContentPublisher(int parallelism) {
+        this(Paths.get(""), parallelism);
+    }
+
+    /**
+     * Create a publisher for the hugo content directory of the given site directory.
+     *
+     * @param siteDirectory directory containing the hugo site
+     * @param parallelism   number of threads deleting files of old directories
+     */
+    ContentPublisher(Path siteDirectory, int parallelism) {
+        this.contentDirectory = siteDirectory.resolve(GUIDE_TEMPLATES_DIR);
+        this.stagingDirectory = siteDirectory.resolve(CONTENT_STAGING_DIR);
+        this.previousDirectory = siteDirectory.resolve(CONTENT_PREVIOUS_DIR);
+        this.guidesDirectory = siteDirectory.resolve(GUIDES_DIR);
+        this.integrationTutorialsDirectory = siteDirectory.resolve(INTEGRATION_TUTORIALS_DIR);
+        this.introDirectory = siteDirectory.resolve(INTRO_DIR);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Create the staging directory with the content which is not generated by the site builder, such as the home
+     * page and index files, and the resources of the current guides, which are only replaced if changed. Staging
+     * directory left by a failed build is deleted first.
+     */
+    void prepare() {
+        deleteDirectory(stagingDirectory.toString(), parallelism);
+        seededResources.clear();
+        try {
+            Files.createDirectories(stagingDirectory);
+            if (!Files.isDirectory(contentDirectory)) {
+                return;
+            }
+            Files.walkFileTree(contentDirectory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Path stagedFile = stagingDirectory.resolve(contentDirectory.relativize(file));
+                    if (isGenerated(file)) {
+                        // Posts are always regenerated, resources are kept until the build shows they are removed.
+                        if (file.getFileName().toString().endsWith(".md")) {
+                            return FileVisitResult.CONTINUE;
+                        }
+                        seededResources.add(stagedFile);
+                    } else if (file.getParent().equals(introDirectory)
+                            && !file.getFileName().toString().equals(INDEX_MD)) {
+                        // Intro posts are generated, only the index file of the intro directory is kept.
+                        return FileVisitResult.CONTINUE;
+                    }
+                    link(file, stagedFile);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new ServiceException("Error occurred when creating staging directory: " + stagingDirectory, e);
+        }
+    }
+
+    /**
+     * Delete resources seeded from the current content which were not produced by the build, since their source
+     * files were removed.
+     *
+     * @param builtResources resource files written or kept by the build
+     */
+    void deleteUnbuiltResources(Collection<File> builtResources) {
+        Set<Path> builtPaths = new HashSet<>();
+        for (File builtResource : builtResources) {
+            builtPaths.add(builtResource.toPath().toAbsolutePath().normalize());
+        }
+        for (Path seededResource : seededResources) {
+            if (!builtPaths.contains(seededResource.toAbsolutePath().normalize())) {
+                try {
+                    Files.deleteIfExists(seededResource);
+                } catch (IOException e) {
+                    throw new ServiceException("Error occurred when deleting removed resource: " + seededResource, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Publish the staging directory as the content directory. The current content directory is kept as the previous
+     * content, replacing the one kept by the last publish.
+     */
+    void publish() {
+        deleteDirectory(previousDirectory.toString(), parallelism);
+        boolean hasContent = Files.exists(contentDirectory);
+        try {
+            if (hasContent) {
+                move(contentDirectory, previousDirectory);
+            }
+        } catch (IOException e) {
+            throw new ServiceException("Error occurred when moving " + contentDirectory + " to "
+                    + previousDirectory, e);
+        }
+        try {
+            move(stagingDirectory, contentDirectory);
+        } catch (IOException e) {
+            if (hasContent) {
+                restore(previousDirectory, contentDirectory, e);
+            }
+            throw new ServiceException("Error occurred when publishing " + stagingDirectory + " to "
+                    + contentDirectory, e);
+        }
+        logger.info("Published " + contentDirectory + ", previous content is kept in " + previousDirectory);
+    }
+
+    /**
+     * Restore the previous content. The current content is kept as the previous content, so that a rollback can be
+     * undone with another rollback.
+     */
+    void rollback() {
+        if (!Files.isDirectory(previousDirectory)) {
+            throw new ServiceException("Previous content to roll back to not found: " + previousDirectory);
+        }
+        deleteDirectory(stagingDirectory.toString(), parallelism);
+        try {
+            move(contentDirectory, stagingDirectory);
+        } catch (IOException e) {
+            throw new ServiceException("Error occurred when moving " + contentDirectory + " to "
+                    + stagingDirectory, e);
+        }
+        try {
+            move(previousDirectory, contentDirectory);
+        } catch (IOException e) {
+            restore(stagingDirectory, contentDirectory, e);
+            throw new ServiceException("Error occurred when rolling back " + contentDirectory + " to "
+                    + previousDirectory, e);
+        }
+        try {
+            move(stagingDirectory, previousDirectory);
+        } catch (IOException e) {
+            // The rollback is complete, only the content rolled back from is left in the staging directory.
+            throw new ServiceException("Rolled back " + contentDirectory + " but could not keep the rolled back "
+                    + "content in " + previousDirectory + ", it is left in " + stagingDirectory, e);
+        }
+        logger.info("Rolled back " + contentDirectory + " to the previous content");
+    }
+
+    private boolean isGenerated(Path file) {
+        return file.startsWith(guidesDirectory) || file.startsWith(integrationTutorialsDirectory);
+    }
+
+    /**
+     * Move a directory back to the content directory after a failed rename, so that hugo keeps serving content.
+     */
+    private static void restore(Path source, Path contentDirectory, IOException cause) {
+        try {
+            move(source, contentDirectory);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+            logger.severe("Could not restore " + contentDirectory + ", the content is left in " + source);
+        }
+    }
+
+    /**
+     * Hard link a file of the current content, falling back to a copy where links are not supported. Files of the
+     * output directory are replaced instead of written in place, so a linked file is never modified.
+     */
+    private static void link(Path file, Path link) throws IOException {
+        Files.createDirectories(link.getParent());
+        try {
+            Files.createLink(link, file);
+        } catch (IOException | UnsupportedOperationException e) {
+            copyFileIfChanged(file.toFile(), link.toFile());
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,344 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import org.wso2.integration.ballerina.utils.IncludeCodeCache;
+import org.wso2.integration.ballerina.utils.IncludeDirective;
+import org.wso2.integration.ballerina.utils.ServiceException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.logging.Logger;
+
+import static org.wso2.integration.ballerina.constants.Constants.REPO_EXAMPLES_DIR;
+import static org.wso2.integration.ballerina.utils.Utils.getLineEnd;
+import static org.wso2.integration.ballerina.utils.Utils.invokeAll;
+import static org.wso2.integration.ballerina.utils.Utils.readLineWithTerminator;
+
+/**
+ * Index of the code files and code segments included in the markdown files of the examples directory. The index is
+ * saved between runs and updated by parsing only the files modified since they were last parsed.
+ */
+class IncludeGraph {
+    private static final Logger logger = Logger.getLogger(IncludeGraph.class.getName());
+    // Increase when a change in the site builder changes the format of the saved index.
+    private static final int INCLUDE_GRAPH_VERSION = 2;
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private int version = INCLUDE_GRAPH_VERSION;
+    // Paths are relative to the examples directory.
+    private Map<String, MarkdownFile> markdownFiles = new TreeMap<>();
+    private Map<String, CodeFile> codeFiles = new TreeMap<>();
+
+    /**
+     * Load index saved by a previous run. An empty index is returned if there is no valid index.
+     *
+     * @param graphFile path of the index file
+     * @return saved index
+     */
+    static IncludeGraph load(String graphFile) {
+        File file = new File(graphFile);
+        if (!file.exists()) {
+            return new IncludeGraph();
+        }
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            IncludeGraph graph = GSON.fromJson(reader, IncludeGraph.class);
+            if (graph == null || graph.version != INCLUDE_GRAPH_VERSION || graph.markdownFiles == null
+                    || graph.codeFiles == null) {
+                logger.info("Include graph is outdated, parsing all files: " + graphFile);
+                return new IncludeGraph();
+            }
+            return graph;
+        } catch (IOException | JsonParseException e) {
+            throw new ServiceException("Error occurred when reading include graph: " + graphFile, e);
+        }
+    }
+
+    /**
+     * Save the index.
+     *
+     * @param graphFile path of the index file
+     */
+    void save(String graphFile) {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(graphFile), StandardCharsets.UTF_8)) {
+            GSON.toJson(this, writer);
+        } catch (IOException e) {
+            throw new ServiceException("Error occurred when writing include graph: " + graphFile, e);
+        }
+    }
+
+    /**
+     * Update the index with the current content of the examples directory. Markdown files and code files modified
+     * since they were last parsed are parsed in parallel.
+     *
+     * @param parallelism number of threads parsing files
+     */
+    void update(int parallelism) {
+        Map<String, MarkdownFile> currentMarkdownFiles = new TreeMap<>();
+        List<Callable<MarkdownFile>> markdownTasks = new ArrayList<>();
+        for (Map.Entry<String, Long> markdownFile : SiteBuilder.findMarkdownFiles().entrySet()) {
+            MarkdownFile parsedFile = markdownFiles.get(markdownFile.getKey());
+            if (parsedFile != null && parsedFile.lastModified == markdownFile.getValue()) {
+                currentMarkdownFiles.put(markdownFile.getKey(), parsedFile);
+            } else {
+                markdownTasks.add(new MarkdownFileParser(markdownFile.getKey(), markdownFile.getValue()));
+            }
+        }
+        for (MarkdownFile parsedFile : invokeAll(markdownTasks, parallelism)) {
+            currentMarkdownFiles.put(parsedFile.path, parsedFile);
+        }
+
+        Map<String, CodeFile> currentCodeFiles = new TreeMap<>();
+        List<Callable<CodeFile>> codeTasks = new ArrayList<>();
+        for (MarkdownFile markdownFile : currentMarkdownFiles.values()) {
+            for (Include include : markdownFile.includes) {
+                if (currentCodeFiles.containsKey(include.file)) {
+                    continue;
+                }
+                long lastModified = new File(REPO_EXAMPLES_DIR, include.file).lastModified();
+                CodeFile parsedFile = codeFiles.get(include.file);
+                if (parsedFile != null && parsedFile.lastModified == lastModified) {
+                    currentCodeFiles.put(include.file, parsedFile);
+                } else {
+                    // Placeholder until parsed, to parse each code file once.
+                    currentCodeFiles.put(include.file, null);
+                    codeTasks.add(new CodeFileParser(include.file, lastModified));
+                }
+            }
+        }
+        for (CodeFile parsedFile : invokeAll(codeTasks, parallelism)) {
+            currentCodeFiles.put(parsedFile.path, parsedFile);
+        }
+
+        for (MarkdownFile markdownFile : currentMarkdownFiles.values()) {
+            for (String error : markdownFile.errors) {
+                logger.warning(error);
+            }
+        }
+        logger.info("Include graph updated. Parsed " + markdownTasks.size() + " of " + currentMarkdownFiles.size()
+                + " markdown files and " + codeTasks.size() + " of " + currentCodeFiles.size() + " code files.");
+        markdownFiles = currentMarkdownFiles;
+        codeFiles = currentCodeFiles;
+    }
+
+    /**
+     * Get locations of the include directives including a code file or a code segment. Including the whole code file
+     * includes all its segments.
+     *
+     * @param codeFile path of the code file relative to the examples directory
+     * @param segment  segment name, null to get all includes of the code file
+     * @return markdown file paths and line numbers of the include directives
+     */
+    List<String> getDependents(String codeFile, String segment) {
+        List<String> dependents = new ArrayList<>();
+        for (MarkdownFile markdownFile : markdownFiles.values()) {
+            for (Include include : markdownFile.includes) {
+                if (include.file.equals(codeFile)
+                        && (segment == null || include.segment == null || include.segment.equals(segment))) {
+                    dependents.add(markdownFile.path + ":" + include.line);
+                }
+            }
+        }
+        return dependents;
+    }
+
+    /**
+     * Get include directives which are malformed, or include a code file or a code segment which does not exist.
+     *
+     * @return markdown file paths and line numbers of the include directives, with the error or the missing file or
+     * segment
+     */
+    List<String> getDanglingIncludes() {
+        List<String> danglingIncludes = new ArrayList<>();
+        for (MarkdownFile markdownFile : markdownFiles.values()) {
+            danglingIncludes.addAll(markdownFile.errors);
+            for (Include include : markdownFile.includes) {
+                CodeFile codeFile = codeFiles.get(include.file);
+                String location = markdownFile.path + ":" + include.line + ": ";
+                if (codeFile == null || !codeFile.exists) {
+                    danglingIncludes.add(location + "code file not found: " + include.file);
+                } else if (include.segment != null && !codeFile.segments.contains(include.segment)) {
+                    danglingIncludes.add(location + "code segment not found: " + include.segment + " in "
+                            + include.file);
+                }
+            }
+        }
+        return danglingIncludes;
+    }
+
+    /**
+     * Parse the include directives of a markdown file. The site build records the code files included in a markdown
+     * file in the build manifest from the same directives.
+     *
+     * @param file   markdown file in the examples directory
+     * @param errors list to collect malformed directives and continue, null to throw on the first malformed directive
+     * @return include directives of the markdown file
+     * @throws ServiceException if a directive is malformed and errors are not collected
+     */
+    static List<Include> parseIncludes(File file, List<String> errors) {
+        List<Include> includes = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String lineWithTerminator;
+            int lineNumber = 0;
+            // Lines are split the same as in the site build, so that directives are reported at the same lines.
+            while ((lineWithTerminator = readLineWithTerminator(reader)) != null) {
+                lineNumber++;
+                String line = lineWithTerminator.substring(0, getLineEnd(lineWithTerminator));
+                IncludeDirective directive;
+                try {
+                    directive = IncludeDirective.parse(line, file.getPath(), lineNumber);
+                } catch (ServiceException e) {
+                    if (errors == null) {
+                        throw e;
+                    }
+                    errors.add(e.getMessage());
+                    continue;
+                }
+                if (directive == null) {
+                    continue;
+                }
+                Include include = new Include();
+                include.line = lineNumber;
+                include.file = SiteBuilder.getRelativePath(
+                        new File(file.getParent(), directive.getFile()).toPath().normalize().toFile());
+                include.segment = directive.getSegment();
+                include.directive = directive;
+                includes.add(include);
+            }
+        } catch (IOException e) {
+            throw new ServiceException("Error occurred when reading markdown file: " + file.getPath(), e);
+        }
+        return includes;
+    }
+
+    /**
+     * Include directives of a markdown file.
+     */
+    private static class MarkdownFile {
+        private String path;
+        private long lastModified;
+        private List<Include> includes = new ArrayList<>();
+        // Malformed directives, which are skipped.
+        private List<String> errors = new ArrayList<>();
+    }
+
+    /**
+     * Include directive of a markdown file.
+     */
+    static class Include {
+        private int line;
+        private String file;
+        private String segment;
+        // Only set when parsed, not saved in the index.
+        private transient IncludeDirective directive;
+
+        /**
+         * Get path of the included code file.
+         *
+         * @return path of the code file relative to the examples directory
+         */
+        String getFile() {
+            return file;
+        }
+
+        IncludeDirective getDirective() {
+            return directive;
+        }
+    }
+
+    /**
+     * Code segments of a code file.
+     */
+    private static class CodeFile {
+        private String path;
+        private long lastModified;
+        private boolean exists;
+        private Set<String> segments = new TreeSet<>();
+    }
+
+    /**
+     * Task parsing the include directives of a markdown file.
+     */
+    private static class MarkdownFileParser implements Callable<MarkdownFile> {
+        private final String path;
+        private final long lastModified;
+
+        MarkdownFileParser(String path, long lastModified) {
+            this.path = path;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public MarkdownFile call() {
+            MarkdownFile markdownFile = new MarkdownFile();
+            markdownFile.path = path;
+            markdownFile.lastModified = lastModified;
+            markdownFile.includes = parseIncludes(new File(REPO_EXAMPLES_DIR, path), markdownFile.errors);
+            return markdownFile;
+        }
+    }
+
+    /**
+     * Task parsing the code segments of a code file.
+     */
+    private static class CodeFileParser implements Callable<CodeFile> {
+        private final String path;
+        private final long lastModified;
+
+        CodeFileParser(String path, long lastModified) {
+            this.path = path;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public CodeFile call() {
+            File file = new File(REPO_EXAMPLES_DIR, path);
+            CodeFile codeFile = new CodeFile();
+            codeFile.path = path;
+            codeFile.lastModified = lastModified;
+            codeFile.exists = file.isFile();
+            if (codeFile.exists) {
+                try {
+                    codeFile.segments.addAll(new IncludeCodeCache().get(file).getSegmentNames());
+                } catch (ServiceException e) {
+                    // Reported as missing segments, the site build reports the cause.
+                    logger.warning(e.getMessage());
+                }
+            }
+            return codeFile;
+        }
+    }
+}
@@ -16,55 +16,100 @@
 
 package org.wso2.integration.ballerina;
 
-import org.apache.commons.io.IOUtils;
+import org.wso2.integration.ballerina.utils.BuildManifest;
+import org.wso2.integration.ballerina.utils.ContentArchive;
+import org.wso2.integration.ballerina.utils.IncludeCodeCache;
+import org.wso2.integration.ballerina.utils.IncludeDirective;
+import org.wso2.integration.ballerina.utils.LineRangeWriter;
 import org.wso2.integration.ballerina.utils.ServiceException;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import static org.wso2.integration.ballerina.constants.Constants.CLOSE_CURLY_BRACKET;
-import static org.wso2.integration.ballerina.constants.Constants.CODE_SEGMENT_BEGIN;
-import static org.wso2.integration.ballerina.constants.Constants.CODE_SEGMENT_END;
-import static org.wso2.integration.ballerina.constants.Constants.COMMENT_END;
-import static org.wso2.integration.ballerina.constants.Constants.COMMENT_START;
+import static org.wso2.integration.ballerina.constants.Constants.ARCHIVE_ARG;
+import static org.wso2.integration.ballerina.constants.Constants.BUILD_MANIFEST_FILE;
+import static org.wso2.integration.ballerina.constants.Constants.BUILD_REPORT_FILE;
+import static org.wso2.integration.ballerina.constants.Constants.CODE;
+import static org.wso2.integration.ballerina.constants.Constants.CONTENT_ARCHIVE_FILE;
+import static org.wso2.integration.ballerina.constants.Constants.CONTENT_BLOBS_DIR;
 import static org.wso2.integration.ballerina.constants.Constants.CONTENT_INTRO_DIR;
+import static org.wso2.integration.ballerina.constants.Constants.CONTENT_STAGING_DIR;
+import static org.wso2.integration.ballerina.constants.Constants.DANGLING_INCLUDES_ARG;
+import static org.wso2.integration.ballerina.constants.Constants.DEPENDENTS_ARG;
 import static org.wso2.integration.ballerina.constants.Constants.EMPTY_STRING;
 import static org.wso2.integration.ballerina.constants.Constants.FRONT_MATTER_IMG_VAR;
 import static org.wso2.integration.ballerina.constants.Constants.FRONT_MATTER_SIGN;
-import static org.wso2.integration.ballerina.constants.Constants.GUIDES_DIR;
 import static org.wso2.integration.ballerina.constants.Constants.GUIDE_URL;
 import static org.wso2.integration.ballerina.constants.Constants.IMG_GUIDES;
-import static org.wso2.integration.ballerina.constants.Constants.INCLUDE_CODE_SEGMENT_TAG;
-import static org.wso2.integration.ballerina.constants.Constants.INCLUDE_CODE_TAG;
+import static org.wso2.integration.ballerina.constants.Constants.INCLUDE_GRAPH_ARG;
+import static org.wso2.integration.ballerina.constants.Constants.INCLUDE_GRAPH_FILE;
+import static org.wso2.integration.ballerina.constants.Constants.INCREMENTAL_ARG;
 import static org.wso2.integration.ballerina.constants.Constants.INDEX_MD;
-import static org.wso2.integration.ballerina.constants.Constants.INTEGRATION_TUTORIALS_DIR;
-import static org.wso2.integration.ballerina.constants.Constants.INTRO_DIR;
 import static org.wso2.integration.ballerina.constants.Constants.INTRO_FRONT_MATTER_LAYOUT;
 import static org.wso2.integration.ballerina.constants.Constants.INTRO_FRONT_MATTER_TYPE;
 import static org.wso2.integration.ballerina.constants.Constants.INTRO_MD;
 import static org.wso2.integration.ballerina.constants.Constants.FRONT_MATTER_GUIDE_VAR;
 import static org.wso2.integration.ballerina.constants.Constants.NEW_LINE;
-import static org.wso2.integration.ballerina.constants.Constants.OPEN_CURLY_BRACKET;
+import static org.wso2.integration.ballerina.constants.Constants.PARALLELISM_ARG;
+import static org.wso2.integration.ballerina.constants.Constants.PROCESSED_FILE_SUFFIX;
 import static org.wso2.integration.ballerina.constants.Constants.README_MD;
+import static org.wso2.integration.ballerina.constants.Constants.ROLLBACK_ARG;
+import static org.wso2.integration.ballerina.constants.Constants.SEGMENT_SEPARATOR;
 import static org.wso2.integration.ballerina.constants.Constants.REPO_EXAMPLES_DIR;
-import static org.wso2.integration.ballerina.constants.Constants.TEMP_DIR;
+import static org.wso2.integration.ballerina.constants.Constants.SLOWEST_FILES_IN_REPORT;
+import static org.wso2.integration.ballerina.constants.Constants.STAGE_ARCHIVE;
+import static org.wso2.integration.ballerina.constants.Constants.STAGE_CLEANUP;
+import static org.wso2.integration.ballerina.constants.Constants.STAGE_PREPARE;
+import static org.wso2.integration.ballerina.constants.Constants.STAGE_INTRO;
+import static org.wso2.integration.ballerina.constants.Constants.STAGE_PROCESS;
+import static org.wso2.integration.ballerina.constants.Constants.STAGE_PUBLISH;
+import static org.wso2.integration.ballerina.constants.Constants.VALIDATE_ARG;
+import static org.wso2.integration.ballerina.constants.Constants.WATCH_ARG;
 import static org.wso2.integration.ballerina.constants.Constants.GUIDE_TEMPLATES_DIR;
-import static org.wso2.integration.ballerina.utils.Utils.copyDirectoryContent;
+import static org.wso2.integration.ballerina.utils.Utils.copyFileIfChanged;
 import static org.wso2.integration.ballerina.utils.Utils.createDirectory;
-import static org.wso2.integration.ballerina.utils.Utils.deleteDirectory;
-import static org.wso2.integration.ballerina.utils.Utils.deleteNonIndexFiles;
-import static org.wso2.integration.ballerina.utils.Utils.getCodeFile;
+import static org.wso2.integration.ballerina.utils.Utils.deleteEmptyParents;
+import static org.wso2.integration.ballerina.utils.Utils.deleteFile;
 import static org.wso2.integration.ballerina.utils.Utils.getCurrentDirectoryName;
+import static org.wso2.integration.ballerina.utils.Utils.getFileHash;
+import static org.wso2.integration.ballerina.utils.Utils.getHash;
+import static org.wso2.integration.ballerina.utils.Utils.getLineEnd;
 import static org.wso2.integration.ballerina.utils.Utils.getMarkdownCodeBlockWithCodeType;
 import static org.wso2.integration.ballerina.utils.Utils.getPostFrontMatter;
-import static org.wso2.integration.ballerina.utils.Utils.removeLicenceHeader;
-import static org.wso2.integration.ballerina.utils.Utils.renameAndMoveFile;
+import static org.wso2.integration.ballerina.utils.Utils.newHashDigest;
+import static org.wso2.integration.ballerina.utils.Utils.readLineWithTerminator;
+import static org.wso2.integration.ballerina.utils.Utils.writeCodeWithoutLicenceHeader;
 
 /**
  * Main class of the site creator project.
@@ -75,184 +120,560 @@ public class SiteBuilder {
 
     public static void main(String[] args) {
         try {
-            // First delete already created posts.
-            deleteDirectory(GUIDES_DIR);
-            deleteDirectory(INTEGRATION_TUTORIALS_DIR);
-            deleteNonIndexFiles(new File(INTRO_DIR));
+            int parallelism = getParallelism(args);
+            if (Arrays.asList(args).contains(VALIDATE_ARG)) {
+                validate(parallelism);
+                return;
+            }
+            if (isIncludeGraphQuery(args)) {
+                queryIncludeGraph(args, parallelism);
+                return;
+            }
+            if (Arrays.asList(args).contains(ROLLBACK_ARG)) {
+                new ContentPublisher(parallelism).rollback();
+                // The manifest describes the rolled back content, so the next incremental build rebuilds all files.
+                deleteFile(new File(BUILD_MANIFEST_FILE));
+                return;
+            }
+            BuildContext context;
+            ContentPublisher publisher = null;
+            boolean watch = Arrays.asList(args).contains(WATCH_ARG);
+            long stageStartTime = System.nanoTime();
+            if (Arrays.asList(args).contains(INCREMENTAL_ARG)) {
+                // Keep already created posts, only changed ones are regenerated.
+                context = new BuildContext(BuildManifest.load(BUILD_MANIFEST_FILE));
+            } else {
+                // Generate all posts in a staging directory, hugo keeps serving the current posts until published.
+                publisher = new ContentPublisher(parallelism);
+                publisher.prepare();
+                // Content hashes are only needed to watch for changes after the build.
+                context = new BuildContext(new BuildManifest(), new BuildManifest(), CONTENT_STAGING_DIR, watch);
+            }
+            context.getMetrics().recordStage(STAGE_PREPARE, stageStartTime);
             // Create needed directory structure.
-            createDirectory(TEMP_DIR);
-            createDirectory(GUIDE_TEMPLATES_DIR);
-            // get a copy of examples directory.
-            copyDirectoryContent(REPO_EXAMPLES_DIR, TEMP_DIR);
-            // Process repository to generate guide templates.
-            processDirectory(TEMP_DIR);
-            // Copy tempDirectory content to hugo content directory.
-            copyDirectoryContent(TEMP_DIR, GUIDE_TEMPLATES_DIR);
+            createDirectory(context.getOutputDirectory());
+            // Process repository to generate guide templates in the hugo content directory.
+            processRepository(REPO_EXAMPLES_DIR, parallelism, context);
+            // Delete posts and resources of removed files, along with the directories left empty.
+            stageStartTime = System.nanoTime();
+            for (String staleOutput : context.getPreviousManifest().getStaleOutputs(context.getManifest())) {
+                File staleFile = new File(staleOutput);
+                deleteFile(staleFile);
+                deleteEmptyParents(staleFile, GUIDE_TEMPLATES_DIR);
+            }
+            context.getMetrics().recordStage(STAGE_CLEANUP, stageStartTime);
+            if (publisher != null) {
+                stageStartTime = System.nanoTime();
+                publisher.deleteUnbuiltResources(context.getResourceOutputs());
+                publisher.publish();
+                context.getMetrics().recordStage(STAGE_PUBLISH, stageStartTime);
+            }
+            if (Arrays.asList(args).contains(ARCHIVE_ARG)) {
+                stageStartTime = System.nanoTime();
+                ContentArchive.create(GUIDE_TEMPLATES_DIR, CONTENT_BLOBS_DIR, CONTENT_ARCHIVE_FILE,
+                        context.getMetrics());
+                context.getMetrics().recordStage(STAGE_ARCHIVE, stageStartTime);
+            }
+            if (context.isTrackingInputs()) {
+                // Save the manifest for the next incremental build.
+                context.getManifest().save(BUILD_MANIFEST_FILE);
+            } else {
+                // The manifest describes the replaced content, so the next incremental build rebuilds all files.
+                deleteFile(new File(BUILD_MANIFEST_FILE));
+            }
+            context.getMetrics().save(BUILD_REPORT_FILE, context.getIncludeCodeCache(), SLOWEST_FILES_IN_REPORT);
+            if (watch) {
+                new SiteWatcher(context).watch();
+            }
         } catch (ServiceException e) {
             logger.log(Level.SEVERE, e.getMessage(), e);
-        } finally {
-            deleteDirectory(TEMP_DIR);
+            // Exit with a failure status, so that scripts stop after a failed validation or build.
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Get the parallelism level given as a program argument (eg: --parallelism=4).
+     *
+     * @param args program arguments
+     * @return parallelism level, 1 when the repository should be processed serially
+     */
+    private static int getParallelism(String[] args) {
+        for (String arg : args) {
+            if (arg.startsWith(PARALLELISM_ARG)) {
+                try {
+                    int parallelism = Integer.parseInt(arg.substring(PARALLELISM_ARG.length()).trim());
+                    if (parallelism > 0) {
+                        return parallelism;
+                    }
+                } catch (NumberFormatException e) {
+                    // Handled below.
+                }
+                throw new ServiceException("Invalid parallelism level. arg: " + arg);
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Validate all markdown files without building the site, logging all errors found.
+     *
+     * @param parallelism number of threads validating files
+     * @throws ServiceException if there are errors
+     */
+    private static void validate(int parallelism) {
+        long startTime = System.nanoTime();
+        List<String> errors = new SiteValidator().validate(parallelism);
+        for (String error : errors) {
+            logger.severe(error);
+        }
+        long time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        if (!errors.isEmpty()) {
+            throw new ServiceException("Validation failed with " + errors.size() + " errors in " + time + " ms");
+        }
+        logger.info("Validation passed in " + time + " ms");
+    }
+
+    private static boolean isIncludeGraphQuery(String[] args) {
+        for (String arg : args) {
+            if (arg.equals(INCLUDE_GRAPH_ARG) || arg.startsWith(DEPENDENTS_ARG) || arg.equals(DANGLING_INCLUDES_ARG)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Update the saved include graph and print the answers of the queries in the arguments, one line per result.
+     *
+     * @param args        program arguments
+     * @param parallelism number of threads parsing files
+     */
+    private static void queryIncludeGraph(String[] args, int parallelism) {
+        IncludeGraph includeGraph = IncludeGraph.load(INCLUDE_GRAPH_FILE);
+        includeGraph.update(parallelism);
+        includeGraph.save(INCLUDE_GRAPH_FILE);
+
+        for (String arg : args) {
+            List<String> results;
+            if (arg.startsWith(DEPENDENTS_ARG)) {
+                // Code file relative to the examples directory, optionally followed by #segment.
+                String[] codeFile = arg.substring(DEPENDENTS_ARG.length()).split(SEGMENT_SEPARATOR, 2);
+                String segment = codeFile.length > 1 ? codeFile[1] : null;
+                String codeFilePath = new File(codeFile[0]).toPath().normalize().toString();
+                results = includeGraph.getDependents(codeFilePath, segment);
+                logger.info(results.size() + " include directives found for " + codeFilePath
+                        + (segment != null ? SEGMENT_SEPARATOR + segment : EMPTY_STRING));
+            } else if (arg.equals(DANGLING_INCLUDES_ARG)) {
+                results = includeGraph.getDanglingIncludes();
+                logger.info(results.size() + " dangling include directives found");
+            } else {
+                continue;
+            }
+            for (String result : results) {
+                System.out.println(result);
+            }
+        }
+    }
+
+    /**
+     * Process all files of the repository and write generated content to the hugo content directory.
+     *
+     * @param directoryPath path of the repository directory
+     * @param parallelism   number of worker threads used, 1 to process serially on the current thread
+     * @param context       build context
+     */
+    private static void processRepository(String directoryPath, int parallelism, BuildContext context) {
+        long stageStartTime = System.nanoTime();
+        List<File> introFiles;
+        if (parallelism > 1) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                introFiles = pool.invoke(new ProcessDirectoryTask(new File(directoryPath), context));
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            introFiles = new ArrayList<>();
+            processDirectory(directoryPath, context, introFiles);
         }
+        context.getMetrics().recordStage(STAGE_PROCESS, stageStartTime);
+        stageStartTime = System.nanoTime();
+        processIntroFiles(introFiles, context);
+        context.getMetrics().recordStage(STAGE_INTRO, stageStartTime);
     }
 
     /**
      * Process files inside given directory.
      *
      * @param directoryPath path of the directory
+     * @param context       build context
+     * @param introFiles    list to collect _intro.md files
      */
-    private static void processDirectory(String directoryPath) {
+    private static void processDirectory(String directoryPath, BuildContext context, List<File> introFiles) {
         File folder = new File(directoryPath);
         File[] listOfFiles = folder.listFiles();
 
         if (listOfFiles != null) {
             for (File file : listOfFiles) {
-                if (file.isFile() && (file.getName().equals(README_MD))) {
-                    processReadmeFile(file);
-                    renameReadmeFile(file);
-                } else if (file.getName().equals(INDEX_MD)) {
-                    processReadmeFile(file);
-                } else if (file.getName().equals(INTRO_MD)) {
-                    processReadmeFile(file);
-                    renameAndMoveFile(file, CONTENT_INTRO_DIR, getCurrentDirectoryName(file.getParent()));
-                } else if (file.isDirectory()) {
-                    processDirectory(file.getPath());
-
+                if (file.isDirectory()) {
+                    processDirectory(file.getPath(), context, introFiles);
+                } else {
+                    processFile(file, context, introFiles);
                 }
             }
         }
     }
 
     /**
-     * Process a given README.md by reading through lines.
+     * Process a single file of the repository. Markdown files are processed into posts, _intro.md files are
+     * collected to be processed after all directories, and other files are copied to the hugo content directory if
+     * they have changed.
      *
-     * @param file README.md file
+     * @param file       file to process
+     * @param context    build context
+     * @param introFiles list to collect _intro.md files
      */
-    private static void processReadmeFile(File file) {
-        try {
-            String readMeFileContent = IOUtils
-                    .toString(new FileInputStream(file), String.valueOf(StandardCharsets.UTF_8));
-            BufferedReader reader = new BufferedReader(new FileReader(file));
-            String line;
-            int lineNumber = 0;
-
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-                if (line.contains(INCLUDE_CODE_TAG)) {
-                    // Replace INCLUDE_CODE line with include code file.
-                    readMeFileContent = readMeFileContent.replace(line, getIncludeCodeFile(file.getParent(), line));
-                } else if (line.contains(INCLUDE_CODE_SEGMENT_TAG)) {
-                    // Replace INCLUDE_CODE_SEGMENT line with include code segment.
-                    readMeFileContent = readMeFileContent.replace(line, getIncludeCodeSegment(file.getParent(), line));
-                } else if (lineNumber == 1 && line.contains("#")) {
-                    // Adding front matter to posts.
-                    readMeFileContent = readMeFileContent.replace(line, getPostFrontMatter(line));
-                }
+    private static void processFile(File file, BuildContext context, List<File> introFiles) {
+        if (file.getName().equals(INTRO_MD)) {
+            introFiles.add(file);
+            return;
+        }
+        String outputPath = getOutputPath(file);
+        if (outputPath == null) {
+            String contentPath = GUIDE_TEMPLATES_DIR + getRelativePath(file);
+            File outputFile = context.getOutputFile(contentPath);
+            boolean copied = copyFileIfChanged(file, outputFile);
+            context.addResourceOutput(outputFile);
+            if (context.isTrackingInputs()) {
+                context.getManifest().addResource(contentPath);
             }
+            context.getMetrics().recordResource(copied, file.length());
+            return;
+        }
+        processMarkdownFile(file, outputPath, context);
+    }
+
+    /**
+     * Process a markdown file into its post. When inputs are tracked, markdown files having the same content and
+     * included code files as in the previous build are not processed, to keep the existing post. An unchanged markdown
+     * file includes the same code files as before, so only the code files recorded in the previous build are hashed
+     * to check it. Other files are hashed and their includes collected while they are processed.
+     *
+     * @param file       markdown file
+     * @param outputPath path of the post in the hugo content directory
+     * @param context    build context
+     */
+    static void processMarkdownFile(File file, String outputPath, BuildContext context) {
+        File outputFile = context.getOutputFile(outputPath);
+        if (!context.isTrackingInputs()) {
+            processReadmeFile(file, outputFile, context, null);
+            return;
+        }
+        String path = getRelativePath(file);
+        BuildManifest.Entry previousEntry = context.getPreviousManifest().get(path);
+        if (previousEntry != null) {
+            Map<String, String> dependencies = new HashMap<>();
+            for (String dependency : previousEntry.getDependencies().keySet()) {
+                dependencies.put(dependency, getDependencyHash(new File(REPO_EXAMPLES_DIR, dependency), context));
+            }
+            BuildManifest.Entry manifestEntry = new BuildManifest.Entry(outputPath, getFileHash(file), dependencies);
+            if (context.getPreviousManifest().isUpToDate(path, manifestEntry)) {
+                context.getMetrics().recordUpToDateMarkdownFile();
+                context.getManifest().put(path, manifestEntry);
+                return;
+            }
+        }
+        Map<String, String> dependencies = new HashMap<>();
+        String hash = processReadmeFile(file, outputFile, context, dependencies);
+        context.getManifest().put(path, new BuildManifest.Entry(outputPath, hash, dependencies));
+    }
+
+    /**
+     * Get content hash of a code file included in a markdown file.
+     *
+     * @param codeFile included code file
+     * @param context  build context
+     * @return content hash, empty if the code file no longer exists
+     */
+    private static String getDependencyHash(File codeFile, BuildContext context) {
+        return codeFile.isFile() ? context.getIncludeCodeCache().getHash(codeFile) : EMPTY_STRING;
+    }
 
-            // Edit front matter if _intro.md
-            if (file.getName().equals(INTRO_MD)) {
-                String frontMatterContent = readMeFileContent.split(FRONT_MATTER_SIGN)[1].split(FRONT_MATTER_SIGN)[0];
+    /**
+     * Get path of the post generated for a markdown file.
+     *
+     * @param file markdown file in the examples directory
+     * @return path of the generated post, null if the file is not a markdown file processed by the site builder
+     */
+    static String getOutputPath(File file) {
+        String outputDirectory = GUIDE_TEMPLATES_DIR + getRelativePath(file.getParentFile());
+        switch (file.getName()) {
+        case README_MD:
+            return new File(outputDirectory, getCurrentDirectoryName(file.getParent()) + ".md").getPath();
+        case INDEX_MD:
+            return new File(outputDirectory, INDEX_MD).getPath();
+        case INTRO_MD:
+            return CONTENT_INTRO_DIR + getCurrentDirectoryName(file.getParent()) + ".md";
+        default:
+            return null;
+        }
+    }
 
-                // image variable
-                String relativeImageUrl = frontMatterContent.split(FRONT_MATTER_IMG_VAR)[1].split("\"")[0];
-                String parentGitImgUrl = IMG_GUIDES + file.getParent().split(TEMP_DIR)[1];
-                // remove img variable already there.
-                String newFrontMatterContent = frontMatterContent
-                        .replace(relativeImageUrl, parentGitImgUrl + "/" + relativeImageUrl);
+    /**
+     * Find markdown files processed by the site builder, with their last modified times.
+     *
+     * @return last modified times of the markdown files, keyed by their paths relative to the examples directory
+     */
+    static Map<String, Long> findMarkdownFiles() {
+        final Map<String, Long> markdownFiles = new TreeMap<>();
+        try {
+            Files.walkFileTree(Paths.get(REPO_EXAMPLES_DIR), new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (getOutputPath(file.toFile()) != null) {
+                        markdownFiles.put(getRelativePath(file.toFile()),
+                                attrs.lastModifiedTime().toMillis());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new ServiceException("Error occurred when reading directory: " + REPO_EXAMPLES_DIR, e);
+        }
+        return markdownFiles;
+    }
 
-                // guide variable
-                String guide = FRONT_MATTER_GUIDE_VAR.replace(GUIDE_URL, getGuideUrl(file));
+    /**
+     * Get path of a file relative to the examples directory.
+     *
+     * @param file file in the examples directory
+     * @return relative path of the file
+     */
+    static String getRelativePath(File file) {
+        String path = file.getPath();
+        return path.startsWith(REPO_EXAMPLES_DIR + File.separator) ?
+                path.substring(REPO_EXAMPLES_DIR.length() + 1) :
+                EMPTY_STRING;
+    }
 
-                readMeFileContent = readMeFileContent.replace(frontMatterContent,
-                        newFrontMatterContent + INTRO_FRONT_MATTER_TYPE + NEW_LINE
-                                + INTRO_FRONT_MATTER_LAYOUT + NEW_LINE + guide + NEW_LINE);
+    /**
+     * Process _intro.md files into the hugo intro directory. Files are processed in path order, after checking for
+     * files which would end up with the same name in the intro directory, which are reported together.
+     *
+     * @param introFiles _intro.md files of the repository
+     * @param context    build context
+     */
+    private static void processIntroFiles(List<File> introFiles, BuildContext context) {
+        Collections.sort(introFiles, new Comparator<File>() {
+            @Override
+            public int compare(File file1, File file2) {
+                return file1.getPath().compareTo(file2.getPath());
             }
+        });
 
-            IOUtils.write(readMeFileContent, new FileOutputStream(file), String.valueOf(StandardCharsets.UTF_8));
-        } catch (Exception e) {
-            throw new ServiceException("Could not find the README.md file: " + file.getPath(), e);
+        List<String> collisions = getIntroFileCollisions(introFiles);
+        if (!collisions.isEmpty()) {
+            StringBuilder message = new StringBuilder("Intro templates having the same name found in ")
+                    .append(CONTENT_INTRO_DIR).append(":");
+            for (String collision : collisions) {
+                message.append(NEW_LINE).append(collision);
+            }
+            throw new ServiceException(message.toString());
         }
 
+        for (File file : introFiles) {
+            processMarkdownFile(file, getOutputPath(file), context);
+        }
     }
 
     /**
-     * Rename README.md file as parent_directory_name.md
+     * Get _intro.md files which would end up with the same name in the intro directory.
      *
-     * @param file README.md file
+     * @param introFiles _intro.md files, in path order
+     * @return intro post name and the paths of the colliding files, for each collision
      */
-    private static void renameReadmeFile(File file) {
-        if (file.getName().equals(README_MD)) {
-            String mdFileName = file.getParent() + "/" + getCurrentDirectoryName(file.getParent()) + ".md";
-            if (!file.renameTo(new File(mdFileName))) {
-                throw new ServiceException("Renaming README.md failed. file:" + file.getPath());
+    static List<String> getIntroFileCollisions(List<File> introFiles) {
+        Map<String, File> introFileNames = new HashMap<>();
+        List<String> collisions = new ArrayList<>();
+        for (File file : introFiles) {
+            String introFileName = getCurrentDirectoryName(file.getParent());
+            File existingFile = introFileNames.put(introFileName, file);
+            if (existingFile != null) {
+                collisions.add(introFileName + ".md: " + existingFile.getPath() + ", " + file.getPath());
             }
         }
+        return collisions;
     }
 
     /**
-     * Get code file content should be included in the README.md file.
+     * Process a given README.md in a single pass, writing each line, or its replacement, to a new file which then
+     * replaces the output file.
      *
-     * @param readMeParentPath parent path of the README.md file
-     * @param line             line having INCLUDE_CODE_TAG
-     * @return code content of the code file should be included
+     * @param file         README.md file
+     * @param outputFile   file to write the processed content
+     * @param context      build context
+     * @param dependencies map to collect content hashes of the included code files, keyed by their paths relative to
+     *                     the examples directory, null if inputs are not tracked
+     * @return content hash of the README.md file, null if inputs are not tracked
      */
-    private static String getIncludeCodeFile(String readMeParentPath, String line) {
-        String fullPathOfIncludeCodeFile = readMeParentPath + getIncludeFilePathFromIncludeCodeLine(line);
-        File includeCodeFile = new File(fullPathOfIncludeCodeFile);
-        String code = removeLicenceHeader(getCodeFile(includeCodeFile)).trim();
-        return getMarkdownCodeBlockWithCodeType(fullPathOfIncludeCodeFile, code);
+    static String processReadmeFile(File file, File outputFile, BuildContext context,
+            Map<String, String> dependencies) {
+        long startTime = System.nanoTime();
+        File processedFile = new File(outputFile.getPath() + PROCESSED_FILE_SUFFIX);
+        MessageDigest digest = dependencies != null ? newHashDigest() : null;
+        try {
+            int includes;
+            Files.createDirectories(outputFile.getParentFile().toPath());
+            InputStream inputStream = new FileInputStream(file);
+            if (digest != null) {
+                // Hash the file while it is processed, instead of reading it again.
+                inputStream = new DigestInputStream(inputStream, digest);
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+                    Writer writer = new BufferedWriter(
+                            new OutputStreamWriter(new FileOutputStream(processedFile), StandardCharsets.UTF_8))) {
+                includes = processReadmeContent(file, context, reader, writer, dependencies);
+            }
+            Files.move(processedFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            context.getMetrics()
+                    .recordMarkdownFile(getRelativePath(file), startTime, file.length(), outputFile.length(), includes);
+            return digest != null ? getHash(digest) : null;
+        } catch (IOException | RuntimeException e) {
+            processedFile.delete();
+            throw new ServiceException("Error occurred when processing the markdown file: " + file.getPath(), e);
+        }
     }
 
     /**
-     * Get code segment should be included in the README.md file.
+     * Write processed content of a README.md file line by line. Include code lines are replaced with the code, a
+     * heading in the first line is replaced with the post front matter and the front matter of _intro.md files is
+     * edited to have the intro template variables.
      *
-     * @param readMeParentPath parent path of the README.md file
-     * @param line             line having INCLUDE_CODE_SEGMENT_TAG
-     * @return code segment content should be included
+     * @param file         README.md file
+     * @param context      build context
+     * @param reader       reader of the README.md file
+     * @param writer       writer of the processed content
+     * @param dependencies map to collect content hashes of the included code files, null if not collected
+     * @return number of include code lines replaced
+     * @throws IOException if reading or writing fails
      */
-    private static String getIncludeCodeSegment(String readMeParentPath, String line) {
-        String includeLineData = line.replace(COMMENT_START, EMPTY_STRING).replace(COMMENT_END, EMPTY_STRING)
-                .replace(INCLUDE_CODE_SEGMENT_TAG, EMPTY_STRING)
-                .trim(); // { file: guide/http_message_receiver.bal, segment: segment_1 }
-
-        String[] tempDataArr = includeLineData.replace(OPEN_CURLY_BRACKET, EMPTY_STRING)
-                .replace(CLOSE_CURLY_BRACKET, EMPTY_STRING).split(",");
+    private static int processReadmeContent(File file, BuildContext context, BufferedReader reader, Writer writer,
+            Map<String, String> dependencies) throws IOException {
+        boolean isIntroFile = file.getName().equals(INTRO_MD);
+        boolean isInFrontMatter = false;
+        boolean isFrontMatterEdited = false;
+        boolean isImageEdited = false;
+        String lineWithTerminator;
+        int lineNumber = 0;
+        int includes = 0;
 
-        String fullPathOfIncludeCodeFile =
-                readMeParentPath + "/" + tempDataArr[0].replace("file:", EMPTY_STRING).trim();
-        String segment = tempDataArr[1].replace("segment:", EMPTY_STRING).trim();
+        while ((lineWithTerminator = readLineWithTerminator(reader)) != null) {
+            lineNumber++;
+            int lineEnd = getLineEnd(lineWithTerminator);
+            String line = lineWithTerminator.substring(0, lineEnd);
+            String lineTerminator = lineWithTerminator.substring(lineEnd);
 
-        File includeCodeFile = new File(fullPathOfIncludeCodeFile);
-        String codeFileContent = removeLicenceHeader(getCodeFile(includeCodeFile));
+            IncludeDirective directive = IncludeDirective.parse(line, file.getPath(), lineNumber);
+            if (directive != null) {
+                // Replace INCLUDE_CODE and INCLUDE_CODE_SEGMENT lines with include code.
+                writeIncludeCode(file.getParent(), directive, context.getIncludeCodeCache(), writer);
+                writer.write(lineTerminator);
+                if (dependencies != null) {
+                    File includeCodeFile = new File(file.getParent(), directive.getFile()).toPath().normalize()
+                            .toFile();
+                    dependencies.put(getRelativePath(includeCodeFile),
+                            context.getIncludeCodeCache().getHash(includeCodeFile));
+                }
+                includes++;
+                continue;
+            }
+            if (lineNumber == 1 && line.contains("#")) {
+                // Adding front matter to posts.
+                line = getPostFrontMatter(line);
+            } else if (isIntroFile && !isFrontMatterEdited && line.trim().equals(FRONT_MATTER_SIGN)) {
+                if (isInFrontMatter) {
+                    // Add intro template variables at the end of the front matter.
+                    String guide = FRONT_MATTER_GUIDE_VAR.replace(GUIDE_URL, getGuideUrl(file));
+                    writer.write(INTRO_FRONT_MATTER_TYPE + NEW_LINE + INTRO_FRONT_MATTER_LAYOUT + NEW_LINE + guide
+                            + NEW_LINE);
+                    isFrontMatterEdited = true;
+                }
+                isInFrontMatter = !isInFrontMatter;
+            } else if (isInFrontMatter && !isImageEdited && line.contains(FRONT_MATTER_IMG_VAR)) {
+                // Edit image variable to have the git image url.
+                String relativeImageUrl = getFrontMatterImageUrl(line);
+                if (relativeImageUrl == null) {
+                    throw new ServiceException("Image variable of the intro template front matter is not in the "
+                            + "correct format. file: " + file.getPath() + ":" + lineNumber);
+                }
+                String parentGitImgUrl = IMG_GUIDES + getRelativePath(file.getParentFile());
+                line = line.replace(relativeImageUrl, parentGitImgUrl + "/" + relativeImageUrl);
+                isImageEdited = true;
+            }
+            writer.write(line);
+            writer.write(lineTerminator);
+        }
 
-        String code = getCodeSegment(codeFileContent, segment).trim();
-        return getMarkdownCodeBlockWithCodeType(fullPathOfIncludeCodeFile, code);
+        if (isIntroFile && !(isFrontMatterEdited && isImageEdited)) {
+            throw new ServiceException("Front matter of the intro template is not in the correct format. file: "
+                    + file.getPath());
+        }
+        return includes;
     }
 
     /**
-     * Get code segment form code file content.
+     * Get the relative image url of the image variable line of an intro template front matter.
      *
-     * @param codeFileContent code file content
-     * @param segmentName     segment name used in the code file (eg: segment_1)
-     * @return code segment as a string
+     * @param line line having the image variable
+     * @return image url, null if the line does not have an image url
      */
-    private static String getCodeSegment(String codeFileContent, String segmentName) {
-        try {
-            return codeFileContent.split(CODE_SEGMENT_BEGIN + segmentName)[1].split(CODE_SEGMENT_END + segmentName)[0];
-        } catch (ArrayIndexOutOfBoundsException e) {
-            throw new ServiceException("Invalid code segment including. segmentName: " + segmentName);
-        }
+    static String getFrontMatterImageUrl(String line) {
+        String[] image = line.split(FRONT_MATTER_IMG_VAR);
+        return image.length > 1 ? image[1].split("\"")[0] : null;
     }
 
     /**
-     * get file path of the INCLUDE_CODE_TAG line.
+     * Write code block of the code file or code segment should be included in the README.md file for an include
+     * directive. Whole code files are streamed from the file, without keeping the code in memory.
      *
-     * @param line line having INCLUDE_CODE_TAG
-     * @return file path of the code file should be included
+     * @param readMeParentPath parent path of the README.md file
+     * @param directive        include directive
+     * @param includeCodeCache cache of the included code segments
+     * @param writer           writer of the processed content
+     * @throws IOException if reading or writing fails
      */
-    private static String getIncludeFilePathFromIncludeCodeLine(String line) {
-        return "/" + line.replace(COMMENT_START, EMPTY_STRING).replace(COMMENT_END, EMPTY_STRING)
-                .replace(INCLUDE_CODE_TAG, EMPTY_STRING).trim();
+    static void writeIncludeCode(String readMeParentPath, IncludeDirective directive,
+            IncludeCodeCache includeCodeCache, Writer writer) throws IOException {
+        String fullPathOfIncludeCodeFile = readMeParentPath + "/" + directive.getFile();
+        File includeCodeFile = new File(fullPathOfIncludeCodeFile);
+        if (!includeCodeFile.isFile()) {
+            throw directive.error("code file not found: " + fullPathOfIncludeCodeFile);
+        }
+        String codeSegment = null;
+        if (directive.isSegment()) {
+            IncludeCodeCache.CodeFile codeFile = includeCodeCache.get(includeCodeFile);
+            if (!codeFile.hasSegment(directive.getSegment())) {
+                throw directive.error("code segment not found: " + directive.getSegment());
+            }
+            codeSegment = codeFile.getSegment(directive.getSegment()).trim();
+        }
+
+        String codeBlock = getMarkdownCodeBlockWithCodeType(fullPathOfIncludeCodeFile, CODE);
+        int codeIndex = codeBlock.indexOf(CODE);
+        writer.write(codeBlock, 0, codeIndex);
+        LineRangeWriter lineRangeWriter = directive.hasLineRange()
+                ? new LineRangeWriter(writer, directive.getFirstLine(), directive.getLastLine()) : null;
+        Writer codeWriter = lineRangeWriter != null ? lineRangeWriter : writer;
+        if (codeSegment != null) {
+            codeWriter.write(codeSegment);
+        } else {
+            writeCodeWithoutLicenceHeader(includeCodeFile, codeWriter);
+        }
+        if (lineRangeWriter != null && lineRangeWriter.getLineCount() < directive.getLastLine()) {
+            throw directive.error("line range exceeds the " + lineRangeWriter.getLineCount() + " lines of the code");
+        }
+        writer.write(codeBlock.substring(codeIndex + CODE.length()));
     }
 
     /**
@@ -262,6 +683,46 @@ public class SiteBuilder {
      * @return particular guide url of the intro template
      */
     private static String getGuideUrl(File file) {
-        return "../../" + file.getParent().replace(TEMP_DIR, EMPTY_STRING);
+        return "../../" + getRelativePath(file.getParentFile());
+    }
+
+    /**
+     * Fork/join task processing a directory, forking a sub task for each sub directory.
+     */
+    private static class ProcessDirectoryTask extends RecursiveTask<List<File>> {
+        private static final long serialVersionUID = 1L;
+        private final File directory;
+        private final BuildContext context;
+
+        ProcessDirectoryTask(File directory, BuildContext context) {
+            this.directory = directory;
+            this.context = context;
+        }
+
+        @Override
+        protected List<File> compute() {
+            List<File> introFiles = new ArrayList<>();
+            File[] listOfFiles = directory.listFiles();
+
+            if (listOfFiles != null) {
+                List<ProcessDirectoryTask> subTasks = new ArrayList<>();
+                for (File file : listOfFiles) {
+                    if (file.isDirectory()) {
+                        ProcessDirectoryTask subTask = new ProcessDirectoryTask(file, context);
+                        subTask.fork();
+                        subTasks.add(subTask);
+                    }
+                }
+                for (File file : listOfFiles) {
+                    if (!file.isDirectory()) {
+                        processFile(file, context, introFiles);
+                    }
+                }
+                for (ProcessDirectoryTask subTask : subTasks) {
+                    introFiles.addAll(subTask.join());
+                }
+            }
+            return introFiles;
+        }
     }
 }
@@ -0,0 +1,156 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina;
+
+import org.wso2.integration.ballerina.utils.IncludeCodeCache;
+import org.wso2.integration.ballerina.utils.IncludeDirective;
+import org.wso2.integration.ballerina.utils.IncludeDirectiveException;
+import org.wso2.integration.ballerina.utils.NullWriter;
+import org.wso2.integration.ballerina.utils.ServiceException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.wso2.integration.ballerina.constants.Constants.CONTENT_INTRO_DIR;
+import static org.wso2.integration.ballerina.constants.Constants.FRONT_MATTER_IMG_VAR;
+import static org.wso2.integration.ballerina.constants.Constants.FRONT_MATTER_SIGN;
+import static org.wso2.integration.ballerina.constants.Constants.INTRO_MD;
+import static org.wso2.integration.ballerina.constants.Constants.REPO_EXAMPLES_DIR;
+import static org.wso2.integration.ballerina.utils.Utils.getLineEnd;
+import static org.wso2.integration.ballerina.utils.Utils.invokeAll;
+import static org.wso2.integration.ballerina.utils.Utils.readLineWithTerminator;
+
+/**
+ * Checks all markdown files of the examples directory for the errors which would fail a site build, without writing
+ * any content. Unlike a build, which stops at the first error, all errors are collected.
+ */
+class SiteValidator {
+    private final IncludeCodeCache includeCodeCache = new IncludeCodeCache();
+
+    /**
+     * Validate all markdown files, in parallel.
+     *
+     * @param parallelism number of threads validating files
+     * @return errors found, with the file path and line number of each error
+     */
+    List<String> validate(int parallelism) {
+        List<Callable<List<String>>> tasks = new ArrayList<>();
+        List<File> introFiles = new ArrayList<>();
+        for (String path : SiteBuilder.findMarkdownFiles().keySet()) {
+            final File file = new File(REPO_EXAMPLES_DIR, path);
+            if (file.getName().equals(INTRO_MD)) {
+                introFiles.add(file);
+            }
+            tasks.add(new Callable<List<String>>() {
+                @Override
+                public List<String> call() {
+                    return validateFile(file);
+                }
+            });
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (List<String> fileErrors : invokeAll(tasks, parallelism)) {
+            errors.addAll(fileErrors);
+        }
+        for (String collision : SiteBuilder.getIntroFileCollisions(introFiles)) {
+            errors.add("Intro templates having the same name found in " + CONTENT_INTRO_DIR + ": " + collision);
+        }
+        return errors;
+    }
+
+    /**
+     * Validate include directives of a markdown file, and the front matter of an _intro.md file.
+     *
+     * @param file markdown file
+     * @return errors found in the file
+     */
+    private List<String> validateFile(File file) {
+        List<String> errors = new ArrayList<>();
+        boolean isIntroFile = file.getName().equals(INTRO_MD);
+        boolean isInFrontMatter = false;
+        boolean isFrontMatterClosed = false;
+        boolean hasImage = false;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String lineWithTerminator;
+            int lineNumber = 0;
+            // Lines are split the same as in the site build, so that directives are reported at the same lines.
+            while ((lineWithTerminator = readLineWithTerminator(reader)) != null) {
+                lineNumber++;
+                String line = lineWithTerminator.substring(0, getLineEnd(lineWithTerminator));
+                try {
+                    IncludeDirective directive = IncludeDirective.parse(line, file.getPath(), lineNumber);
+                    if (directive != null) {
+                        validateInclude(file, directive);
+                    }
+                } catch (ServiceException e) {
+                    errors.add(e.getMessage());
+                }
+
+                if (isIntroFile && !isFrontMatterClosed && line.trim().equals(FRONT_MATTER_SIGN)) {
+                    isFrontMatterClosed = isInFrontMatter;
+                    isInFrontMatter = !isInFrontMatter;
+                } else if (isInFrontMatter && !hasImage && line.contains(FRONT_MATTER_IMG_VAR)) {
+                    if (SiteBuilder.getFrontMatterImageUrl(line) == null) {
+                        errors.add(file.getPath() + ":" + lineNumber
+                                + ": image variable of the intro template front matter has no image url");
+                    }
+                    hasImage = true;
+                }
+            }
+        } catch (IOException e) {
+            errors.add(file.getPath() + ": error occurred when reading the file: " + e.getMessage());
+        }
+
+        if (isIntroFile && !isFrontMatterClosed) {
+            errors.add(file.getPath() + ": front matter of the intro template is not closed with " + FRONT_MATTER_SIGN);
+        } else if (isIntroFile && !hasImage) {
+            errors.add(file.getPath() + ": front matter of the intro template does not have the "
+                    + FRONT_MATTER_IMG_VAR.trim() + " variable");
+        }
+        return errors;
+    }
+
+    /**
+     * Validate an include directive by resolving its code the same way as a build does, discarding the code.
+     *
+     * @param file      markdown file
+     * @param directive include directive
+     * @throws ServiceException with the location of the directive if the code cannot be included
+     */
+    private void validateInclude(File file, IncludeDirective directive) {
+        try {
+            SiteBuilder.writeIncludeCode(file.getParent(), directive, includeCodeCache, new NullWriter());
+        } catch (IOException e) {
+            throw directive.error("error occurred when reading the code file: " + e.getMessage());
+        } catch (IncludeDirectiveException e) {
+            throw e;
+        } catch (ServiceException e) {
+            // Errors of the code file, such as a missing licence header.
+            throw directive.error(e.getMessage());
+        }
+    }
+}
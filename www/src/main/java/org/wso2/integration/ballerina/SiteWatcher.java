@@ -0,0 +1,235 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina;
+
+import org.wso2.integration.ballerina.utils.BuildManifest;
+import org.wso2.integration.ballerina.utils.ServiceException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static org.wso2.integration.ballerina.constants.Constants.BUILD_MANIFEST_FILE;
+import static org.wso2.integration.ballerina.constants.Constants.GUIDE_TEMPLATES_DIR;
+import static org.wso2.integration.ballerina.constants.Constants.REPO_EXAMPLES_DIR;
+import static org.wso2.integration.ballerina.constants.Constants.WATCH_DEBOUNCE_MILLIS;
+import static org.wso2.integration.ballerina.utils.Utils.copyFileIfChanged;
+import static org.wso2.integration.ballerina.utils.Utils.deleteDirectory;
+import static org.wso2.integration.ballerina.utils.Utils.deleteFile;
+
+/**
+ * Watches the examples directory after a site build and regenerates the posts affected by each change. Posts are
+ * affected by a change to their markdown file or to a code file included in it, as recorded in the build manifest.
+ */
+class SiteWatcher {
+    private static final Logger logger = Logger.getLogger(SiteWatcher.class.getName());
+
+    private final Path examplesDirectory = Paths.get(REPO_EXAMPLES_DIR);
+    private final Map<WatchKey, Path> watchedDirectories = new HashMap<>();
+    private final BuildManifest manifest;
+    private final BuildContext context;
+
+    /**
+     * Create a watcher continuing from a completed build.
+     *
+     * @param buildContext context of the completed build
+     */
+    SiteWatcher(BuildContext buildContext) {
+        manifest = buildContext.getManifest();
+        // Compare each change against the latest generated posts, which are recorded in the same manifest.
+        context = new BuildContext(manifest, manifest);
+    }
+
+    /**
+     * Watch the examples directory until the process is stopped.
+     */
+    void watch() {
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            registerDirectory(watchService, examplesDirectory);
+            logger.info("Watching for changes: " + examplesDirectory);
+
+            Set<String> changedFiles = new TreeSet<>();
+            while (true) {
+                WatchKey watchKey = watchService.take();
+                // Collect events until no new event is received within the debounce time, as editors save in bursts.
+                while (watchKey != null) {
+                    collectChangedFiles(watchService, watchKey, changedFiles);
+                    watchKey = watchService.poll(WATCH_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (isContentPublishing()) {
+                    // Changes are kept and rebuilt with the next change after the content is published.
+                    logger.warning("Content directory is being replaced by a full build, postponed rebuilding "
+                            + changedFiles);
+                    continue;
+                }
+                rebuild(changedFiles);
+                changedFiles.clear();
+            }
+        } catch (IOException e) {
+            throw new ServiceException("Error occurred when watching directory: " + examplesDirectory, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Register a directory and all its sub directories with the watch service.
+     *
+     * @param watchService watch service
+     * @param directory    directory to register
+     * @throws IOException if registering fails
+     */
+    private void registerDirectory(final WatchService watchService, Path directory) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                watchedDirectories.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Collect paths of the files changed in the events of a watch key, relative to the examples directory.
+     *
+     * @param watchService watch service
+     * @param watchKey     signalled watch key
+     * @param changedFiles set to collect the changed files
+     */
+    private void collectChangedFiles(WatchService watchService, WatchKey watchKey, Set<String> changedFiles) {
+        Path directory = watchedDirectories.get(watchKey);
+        for (WatchEvent<?> event : watchKey.pollEvents()) {
+            if (event.kind() == OVERFLOW || directory == null) {
+                logger.warning("File system events were lost, restart the site builder to rebuild all files.");
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    registerDirectory(watchService, path);
+                    addFiles(path, changedFiles);
+                } catch (IOException e) {
+                    // The directory may be deleted before it is read, which is then rebuilt as a deleted directory.
+                    logger.log(Level.WARNING, "Error occurred when watching new directory: " + path, e);
+                    changedFiles.add(examplesDirectory.relativize(path).toString());
+                }
+            } else {
+                changedFiles.add(examplesDirectory.relativize(path).toString());
+            }
+        }
+        if (!watchKey.reset()) {
+            watchedDirectories.remove(watchKey);
+        }
+    }
+
+    /**
+     * Add all files of a new directory to the changed files.
+     *
+     * @param directory    new directory
+     * @param changedFiles set to collect the changed files
+     * @throws IOException if reading the directory fails
+     */
+    private void addFiles(Path directory, final Set<String> changedFiles) throws IOException {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                changedFiles.add(examplesDirectory.relativize(file).toString());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Check whether a full build is publishing its content, which leaves the content directory missing between its
+     * renames. Writing a post then would create a new content directory, failing the publish.
+     *
+     * @return true if the content directory is missing
+     */
+    private static boolean isContentPublishing() {
+        return !Files.isDirectory(Paths.get(GUIDE_TEMPLATES_DIR));
+    }
+
+    /**
+     * Regenerate posts affected by the changed files and copy or delete changed resources.
+     *
+     * @param changedFiles changed files, relative to the examples directory
+     */
+    private void rebuild(Set<String> changedFiles) {
+        long startTime = System.nanoTime();
+        Set<String> markdownFiles = new TreeSet<>();
+        try {
+            for (String changedFile : changedFiles) {
+                File file = new File(REPO_EXAMPLES_DIR, changedFile);
+                if (SiteBuilder.getOutputPath(file) != null) {
+                    markdownFiles.add(changedFile);
+                    continue;
+                }
+                markdownFiles.addAll(manifest.getDependents(changedFile));
+                File copiedFile = new File(GUIDE_TEMPLATES_DIR + changedFile);
+                if (file.isFile()) {
+                    copyFileIfChanged(file, copiedFile);
+                    manifest.addResource(copiedFile.getPath());
+                } else if (!file.exists()) {
+                    // Deleted file or directory, posts of the markdown files in a deleted directory are deleted too.
+                    markdownFiles.addAll(manifest.getFilesIn(changedFile));
+                    manifest.removeResourcesIn(copiedFile.getPath());
+                    if (copiedFile.isDirectory()) {
+                        deleteDirectory(copiedFile.getPath());
+                    } else {
+                        deleteFile(copiedFile);
+                    }
+                }
+            }
+
+            for (String markdownFile : markdownFiles) {
+                File file = new File(REPO_EXAMPLES_DIR, markdownFile);
+                if (file.isFile()) {
+                    SiteBuilder.processMarkdownFile(file, SiteBuilder.getOutputPath(file), context);
+                } else {
+                    deleteFile(new File(SiteBuilder.getOutputPath(file)));
+                    manifest.remove(markdownFile);
+                }
+            }
+            manifest.save(BUILD_MANIFEST_FILE);
+            logger.info("Rebuilt " + markdownFiles + " in " + TimeUnit.NANOSECONDS
+                    .toMillis(System.nanoTime() - startTime) + " ms");
+        } catch (RuntimeException e) {
+            // Log failures of a rebuild and keep watching, the next change rebuilds the affected files again.
+            logger.log(Level.SEVERE, "Error occurred when rebuilding " + changedFiles + ": " + e.getMessage(), e);
+        }
+    }
+}
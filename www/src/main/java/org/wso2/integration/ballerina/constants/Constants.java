@@ -25,17 +25,46 @@ public final class Constants {
 
     // Directory paths
     public static final String REPO_EXAMPLES_DIR = ".." + File.separator + "examples";
-    public static final String TEMP_DIR = "tempDirectory/";
     public static final String GUIDE_TEMPLATES_DIR = "hugo-www/content/";
     public static final String GUIDES_DIR = GUIDE_TEMPLATES_DIR + "guides";
     public static final String INTEGRATION_TUTORIALS_DIR = GUIDE_TEMPLATES_DIR + "integration-tutorials";
     public static final String INTRO_DIR = GUIDE_TEMPLATES_DIR + "intro";
     public static final String CONTENT_INTRO_DIR = "hugo-www/content/intro/";
+    public static final String CONTENT_STAGING_DIR = "hugo-www/content.staging/";
+    public static final String CONTENT_PREVIOUS_DIR = "hugo-www/content.previous/";
+    public static final String BUILD_MANIFEST_FILE = "build-manifest.json";
+    public static final String BUILD_REPORT_FILE = "hugo-www/build-report.json";
+    public static final String INCLUDE_GRAPH_FILE = "include-graph.json";
+    public static final String CONTENT_ARCHIVE_FILE = "hugo-www/content.zip";
+    public static final String CONTENT_BLOBS_DIR = "hugo-www/content-blobs/";
 
     // Files
     public static final String README_MD = "README.md";
     public static final String INDEX_MD = "_index.md";
     public static final String INTRO_MD = "_intro.md";
+    public static final String PROCESSED_FILE_SUFFIX = ".processed";
+
+    // Build report
+    public static final String STAGE_PREPARE = "prepare";
+    public static final String STAGE_PROCESS = "process";
+    public static final String STAGE_INTRO = "intro";
+    public static final String STAGE_CLEANUP = "cleanup";
+    public static final String STAGE_PUBLISH = "publish";
+    public static final String STAGE_ARCHIVE = "archive";
+    public static final int SLOWEST_FILES_IN_REPORT = 10;
+
+    // Program arguments
+    public static final String PARALLELISM_ARG = "--parallelism=";
+    public static final String INCREMENTAL_ARG = "--incremental";
+    public static final String WATCH_ARG = "--watch";
+    public static final String ROLLBACK_ARG = "--rollback";
+    public static final String VALIDATE_ARG = "--validate";
+    public static final String ARCHIVE_ARG = "--archive";
+    public static final String INCLUDE_GRAPH_ARG = "--include-graph";
+    public static final String DEPENDENTS_ARG = "--dependents=";
+    public static final String DANGLING_INCLUDES_ARG = "--dangling-includes";
+    public static final String SEGMENT_SEPARATOR = "#";
+    public static final long WATCH_DEBOUNCE_MILLIS = 50;
 
     // Special syntax
     public static final String INCLUDE_CODE_TAG = "INCLUDE_CODE:";
@@ -49,6 +78,9 @@ public final class Constants {
     public static final String LICENCE_LAST_LINE = "// under the License.";
     public static final String OPEN_CURLY_BRACKET = "{";
     public static final String CLOSE_CURLY_BRACKET = "}";
+    public static final String INCLUDE_ATTRIBUTE_FILE = "file";
+    public static final String INCLUDE_ATTRIBUTE_SEGMENT = "segment";
+    public static final String INCLUDE_ATTRIBUTE_LINES = "lines";
     public static final String CODE_SEGMENT_BEGIN = "// CODE-SEGMENT-BEGIN: ";
     public static final String CODE_SEGMENT_END = "// CODE-SEGMENT-END: ";
     public static final String FRONT_MATTER_SIGN = "---";
@@ -0,0 +1,273 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Manifest of content hashes of the markdown files processed in a site build, and of the code files included in
+ * them, along with the resources copied by the build. Used to regenerate only the outputs whose inputs changed since
+ * the previous build, and to delete the outputs of removed inputs.
+ */
+public class BuildManifest {
+    private static final Logger logger = Logger.getLogger(BuildManifest.class.getName());
+    // Increase when a change in the site builder changes the generated content of unchanged inputs.
+    private static final int MANIFEST_VERSION = 2;
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private int version = MANIFEST_VERSION;
+    private Map<String, Entry> files = new ConcurrentHashMap<>();
+    private Set<String> resources = newConcurrentSet();
+
+    /**
+     * Load manifest saved by a previous build. An empty manifest is returned if there is no valid manifest.
+     *
+     * @param manifestFile path of the manifest file
+     * @return manifest of the previous build
+     */
+    public static BuildManifest load(String manifestFile) {
+        File file = new File(manifestFile);
+        if (!file.exists()) {
+            logger.info("Build manifest not found, building all files: " + manifestFile);
+            return new BuildManifest();
+        }
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            BuildManifest manifest = GSON.fromJson(reader, BuildManifest.class);
+            if (manifest == null || manifest.version != MANIFEST_VERSION || manifest.files == null
+                    || manifest.resources == null) {
+                logger.info("Build manifest is outdated, building all files: " + manifestFile);
+                return new BuildManifest();
+            }
+            manifest.files = new ConcurrentHashMap<>(manifest.files);
+            Set<String> resources = newConcurrentSet();
+            resources.addAll(manifest.resources);
+            manifest.resources = resources;
+            return manifest;
+        } catch (IOException | JsonParseException e) {
+            throw new ServiceException("Error occurred when reading build manifest: " + manifestFile, e);
+        }
+    }
+
+    /**
+     * Save the manifest. Entries are written in the order of their paths.
+     *
+     * @param manifestFile path of the manifest file
+     */
+    public void save(String manifestFile) {
+        BuildManifest sortedManifest = new BuildManifest();
+        sortedManifest.files = new TreeMap<>(files);
+        sortedManifest.resources = new TreeSet<>(resources);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(manifestFile), StandardCharsets.UTF_8)) {
+            GSON.toJson(sortedManifest, writer);
+        } catch (IOException e) {
+            throw new ServiceException("Error occurred when writing build manifest: " + manifestFile, e);
+        }
+    }
+
+    /**
+     * Check whether a markdown file has the same inputs as in this manifest and its output still exists.
+     *
+     * @param path  path of the markdown file relative to the examples directory
+     * @param entry entry of the markdown file in the current build
+     * @return true if the output of the markdown file does not need to be regenerated
+     */
+    public boolean isUpToDate(String path, Entry entry) {
+        return entry.equals(files.get(path)) && new File(entry.output).exists();
+    }
+
+    /**
+     * Get the entry of a markdown file.
+     *
+     * @param path path of the markdown file relative to the examples directory
+     * @return entry of the markdown file, null if it is not in the manifest
+     */
+    public Entry get(String path) {
+        return files.get(path);
+    }
+
+    /**
+     * Record a markdown file processed in the current build. Thread safe.
+     *
+     * @param path  path of the markdown file relative to the examples directory
+     * @param entry entry of the markdown file
+     */
+    public void put(String path, Entry entry) {
+        files.put(path, entry);
+    }
+
+    /**
+     * Remove a markdown file from the manifest. Thread safe.
+     *
+     * @param path path of the markdown file relative to the examples directory
+     */
+    public void remove(String path) {
+        files.remove(path);
+    }
+
+    /**
+     * Record a resource copied to the hugo content directory in the current build. Thread safe.
+     *
+     * @param output path of the resource in the hugo content directory
+     */
+    public void addResource(String output) {
+        resources.add(output);
+    }
+
+    /**
+     * Remove the resources with the given path, or inside the directory with the given path. Thread safe.
+     *
+     * @param output path of a resource or a directory in the hugo content directory
+     */
+    public void removeResourcesIn(String output) {
+        for (String resource : resources) {
+            if (resource.equals(output) || resource.startsWith(output + File.separator)) {
+                resources.remove(resource);
+            }
+        }
+    }
+
+    /**
+     * Get markdown files which include a code file.
+     *
+     * @param dependency path of the code file relative to the examples directory
+     * @return paths of the markdown files including the code file
+     */
+    public Set<String> getDependents(String dependency) {
+        Set<String> dependents = new TreeSet<>();
+        for (Map.Entry<String, Entry> file : files.entrySet()) {
+            if (file.getValue().dependencies.containsKey(dependency)) {
+                dependents.add(file.getKey());
+            }
+        }
+        return dependents;
+    }
+
+    /**
+     * Get markdown files with the given path, or inside the directory with the given path.
+     *
+     * @param path path of a markdown file or a directory relative to the examples directory
+     * @return paths of the markdown files
+     */
+    public Set<String> getFilesIn(String path) {
+        Set<String> filesInPath = new TreeSet<>();
+        for (String file : files.keySet()) {
+            if (file.equals(path) || file.startsWith(path + File.separator)) {
+                filesInPath.add(file);
+            }
+        }
+        return filesInPath;
+    }
+
+    /**
+     * Get outputs of the markdown files and the resources in this manifest which are not generated in the given
+     * manifest.
+     *
+     * @param currentManifest manifest of the current build
+     * @return paths of the outputs that are no longer generated
+     */
+    public Set<String> getStaleOutputs(BuildManifest currentManifest) {
+        Set<String> currentOutputs = new HashSet<>(currentManifest.resources);
+        for (Entry entry : currentManifest.files.values()) {
+            currentOutputs.add(entry.output);
+        }
+        Set<String> staleOutputs = new HashSet<>();
+        for (Entry entry : files.values()) {
+            if (!currentOutputs.contains(entry.output)) {
+                staleOutputs.add(entry.output);
+            }
+        }
+        for (String resource : resources) {
+            if (!currentOutputs.contains(resource)) {
+                staleOutputs.add(resource);
+            }
+        }
+        return staleOutputs;
+    }
+
+    private static Set<String> newConcurrentSet() {
+        return Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    }
+
+    /**
+     * Manifest entry of a single markdown file.
+     */
+    public static class Entry {
+        private final String output;
+        private final String hash;
+        private final Map<String, String> dependencies;
+
+        /**
+         * Create a manifest entry.
+         *
+         * @param output       path of the generated file
+         * @param hash         content hash of the markdown file
+         * @param dependencies content hashes of the included code files, keyed by their paths
+         */
+        public Entry(String output, String hash, Map<String, String> dependencies) {
+            this.output = output;
+            this.hash = hash;
+            this.dependencies = new TreeMap<>(dependencies);
+        }
+
+        /**
+         * Get content hashes of the included code files.
+         *
+         * @return content hashes keyed by the paths of the code files relative to the examples directory
+         */
+        public Map<String, String> getDependencies() {
+            return Collections.unmodifiableMap(dependencies);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry entry = (Entry) o;
+            return output.equals(entry.output) && hash.equals(entry.hash) && dependencies
+                    .equals(entry.dependencies);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * output.hashCode() + hash.hashCode()) + dependencies.hashCode();
+        }
+    }
+}
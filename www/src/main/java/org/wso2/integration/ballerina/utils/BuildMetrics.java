@@ -0,0 +1,204 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Timers and counters of a site build, written as a JSON report at the end of the build. Thread safe.
+ */
+public class BuildMetrics {
+    private static final Logger logger = Logger.getLogger(BuildMetrics.class.getName());
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final long buildStartTime = System.nanoTime();
+    private final Map<String, Long> stageTimes = Collections.synchronizedMap(new LinkedHashMap<String, Long>());
+    private final Queue<FileMetrics> processedFiles = new ConcurrentLinkedQueue<>();
+    private final AtomicLong upToDateMarkdownFiles = new AtomicLong();
+    private final AtomicLong copiedResources = new AtomicLong();
+    private final AtomicLong upToDateResources = new AtomicLong();
+    private final AtomicLong copiedResourceBytes = new AtomicLong();
+    private final AtomicLong archivedFiles = new AtomicLong();
+    private final AtomicLong archivedBlobs = new AtomicLong();
+    private final AtomicLong addedArchiveBlobs = new AtomicLong();
+
+    /**
+     * Record time taken by a build stage.
+     *
+     * @param stage     name of the stage
+     * @param startTime start time of the stage, from {@link System#nanoTime()}
+     */
+    public void recordStage(String stage, long startTime) {
+        stageTimes.put(stage, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Record a processed markdown file.
+     *
+     * @param path         path of the markdown file
+     * @param startTime    processing start time, from {@link System#nanoTime()}
+     * @param bytesRead    size of the markdown file
+     * @param bytesWritten size of the generated post
+     * @param includes     number of include code lines resolved
+     */
+    public void recordMarkdownFile(String path, long startTime, long bytesRead, long bytesWritten, int includes) {
+        processedFiles.add(new FileMetrics(path, System.nanoTime() - startTime, bytesRead, bytesWritten, includes));
+    }
+
+    /**
+     * Record a markdown file whose post is up to date.
+     */
+    public void recordUpToDateMarkdownFile() {
+        upToDateMarkdownFiles.incrementAndGet();
+    }
+
+    /**
+     * Record a resource file.
+     *
+     * @param copied true if the resource was copied, false if the existing copy was up to date
+     * @param bytes  size of the resource
+     */
+    public void recordResource(boolean copied, long bytes) {
+        if (copied) {
+            copiedResources.incrementAndGet();
+            copiedResourceBytes.addAndGet(bytes);
+        } else {
+            upToDateResources.incrementAndGet();
+        }
+    }
+
+    /**
+     * Record the content archive.
+     *
+     * @param files      number of files in the archive
+     * @param blobs      number of distinct blobs of the files
+     * @param addedBlobs number of blobs not kept from the previous build
+     */
+    public void recordArchive(long files, long blobs, long addedBlobs) {
+        archivedFiles.set(files);
+        archivedBlobs.set(blobs);
+        addedArchiveBlobs.set(addedBlobs);
+    }
+
+    /**
+     * Write the build report.
+     *
+     * @param reportFile       path of the report file
+     * @param includeCodeCache included code file cache of the build
+     * @param slowestFileCount number of slowest markdown files to include in the report
+     */
+    public void save(String reportFile, IncludeCodeCache includeCodeCache, int slowestFileCount) {
+        Report report = new Report();
+        report.totalTimeMillis = toMillis(System.nanoTime() - buildStartTime);
+        synchronized (stageTimes) {
+            for (Map.Entry<String, Long> stageTime : stageTimes.entrySet()) {
+                report.stageTimeMillis.put(stageTime.getKey(), toMillis(stageTime.getValue()));
+            }
+        }
+
+        List<FileMetrics> files = new ArrayList<>(processedFiles);
+        long bytesRead = 0;
+        long bytesWritten = 0;
+        long includes = 0;
+        for (FileMetrics file : files) {
+            bytesRead += file.bytesRead;
+            bytesWritten += file.bytesWritten;
+            includes += file.includes;
+        }
+        report.counters.put("markdownFilesProcessed", (long) files.size());
+        report.counters.put("markdownFilesUpToDate", upToDateMarkdownFiles.get());
+        report.counters.put("markdownBytesRead", bytesRead);
+        report.counters.put("markdownBytesWritten", bytesWritten);
+        report.counters.put("includesResolved", includes);
+        report.counters.put("includeCacheHits", includeCodeCache.getHits());
+        report.counters.put("includeCacheMisses", includeCodeCache.getMisses());
+        report.counters.put("resourcesCopied", copiedResources.get());
+        report.counters.put("resourcesUpToDate", upToDateResources.get());
+        report.counters.put("resourceBytesCopied", copiedResourceBytes.get());
+        report.counters.put("archivedFiles", archivedFiles.get());
+        report.counters.put("archivedBlobs", archivedBlobs.get());
+        report.counters.put("archiveBlobsAdded", addedArchiveBlobs.get());
+
+        Collections.sort(files, new Comparator<FileMetrics>() {
+            @Override
+            public int compare(FileMetrics file1, FileMetrics file2) {
+                int result = Double.compare(file2.timeMillis, file1.timeMillis);
+                return result != 0 ? result : file1.path.compareTo(file2.path);
+            }
+        });
+        report.slowestFiles = files.subList(0, Math.min(slowestFileCount, files.size()));
+
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(reportFile), StandardCharsets.UTF_8)) {
+            GSON.toJson(report, writer);
+        } catch (IOException e) {
+            throw new ServiceException("Error occurred when writing build report: " + reportFile, e);
+        }
+        logger.info("Site built in " + report.totalTimeMillis + " ms. Stages: " + report.stageTimeMillis
+                + ", counters: " + report.counters);
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) TimeUnit.NANOSECONDS.toMicros(nanos) / 1000;
+    }
+
+    /**
+     * Build report written as JSON.
+     */
+    private static class Report {
+        private double totalTimeMillis;
+        private Map<String, Double> stageTimeMillis = new LinkedHashMap<>();
+        private Map<String, Long> counters = new LinkedHashMap<>();
+        private List<FileMetrics> slowestFiles;
+    }
+
+    /**
+     * Metrics of a processed markdown file.
+     */
+    private static class FileMetrics {
+        private final String path;
+        private final double timeMillis;
+        private final long bytesRead;
+        private final long bytesWritten;
+        private final int includes;
+
+        FileMetrics(String path, long time, long bytesRead, long bytesWritten, int includes) {
+            this.path = path;
+            this.timeMillis = toMillis(time);
+            this.bytesRead = bytesRead;
+            this.bytesWritten = bytesWritten;
+            this.includes = includes;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.zeroturnaround.zip.ByteSource;
+import org.zeroturnaround.zip.FileSource;
+import org.zeroturnaround.zip.ZipEntrySource;
+import org.zeroturnaround.zip.ZipUtil;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.wso2.integration.ballerina.utils.Utils.getFileHash;
+import static org.wso2.integration.ballerina.utils.Utils.getHash;
+import static org.wso2.integration.ballerina.utils.Utils.newHashDigest;
+
+/**
+ * Content addressed archive of the hugo content directory. Each file is stored as a list of blobs named by the hash
+ * of their content, so identical blobs are stored once. Markdown posts are split into a blob per code block and per
+ * text between code blocks, so that a code file included in many posts is stored once. Other files, such as images,
+ * are stored as a single blob.
+ * <p>
+ * The archive has an index.json entry, mapping each file path to the hashes of its blobs in order, and a
+ * blobs/&lt;hash&gt; entry for each blob. Blobs are kept in a blob directory between builds, where only new blobs are
+ * written and blobs no longer used are deleted.
+ */
+public class ContentArchive {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final int ARCHIVE_VERSION = 1;
+    private static final String INDEX_ENTRY = "index.json";
+    private static final String BLOBS_ENTRY = "blobs/";
+    private static final String MARKDOWN_EXTENSION = ".md";
+    private static final String CODE_BLOCK_FENCE = "```";
+
+    private final Path blobDirectory;
+    private final Set<String> blobs = new TreeSet<>();
+    private final Index index = new Index();
+    private long newBlobs;
+
+    private ContentArchive(Path blobDirectory) {
+        this.blobDirectory = blobDirectory;
+    }
+
+    /**
+     * Create archive of a content directory.
+     *
+     * @param contentDirectory directory to archive
+     * @param blobDirectory    directory keeping the blobs between builds
+     * @param archiveFile      path of the archive file
+     * @param metrics          metrics of the build
+     */
+    public static void create(String contentDirectory, String blobDirectory, String archiveFile,
+            BuildMetrics metrics) {
+        ContentArchive archive = new ContentArchive(Paths.get(blobDirectory));
+        try {
+            Files.createDirectories(archive.blobDirectory);
+            archive.addDirectory(Paths.get(contentDirectory));
+            archive.deleteUnusedBlobs();
+            archive.write(new File(archiveFile));
+        } catch (IOException e) {
+            throw new ServiceException("Error occurred when creating content archive: " + archiveFile, e);
+        }
+        metrics.recordArchive(archive.index.files.size(), archive.blobs.size(), archive.newBlobs);
+    }
+
+    private void addDirectory(final Path contentDirectory) throws IOException {
+        Files.walkFileTree(contentDirectory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                // Paths in the archive use / on all platforms.
+                String path = contentDirectory.relativize(file).toString().replace(File.separatorChar, '/');
+                index.files.put(path, file.toString().endsWith(MARKDOWN_EXTENSION) ?
+                        addMarkdownFile(file.toFile()) :
+                        addFile(file.toFile()));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Add a markdown file, split into code blocks and the text between them. The file is split on its bytes rather
+     * than on decoded text, so that the blobs are always the exact bytes of the file. Line terminators are ASCII bytes
+     * which are never part of an encoded character, so lines are split the same as in
+     * {@link Utils#readLineWithTerminator}.
+     *
+     * @param file markdown file
+     * @return hashes of the blobs of the file
+     * @throws IOException if reading the file fails
+     */
+    private List<String> addMarkdownFile(File file) throws IOException {
+        List<String> fileBlobs = new ArrayList<>();
+        ByteArrayOutputStream blob = new ByteArrayOutputStream();
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        boolean isInCodeBlock = false;
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
+            int character = inputStream.read();
+            while (character != -1) {
+                line.write(character);
+                int nextCharacter = inputStream.read();
+                boolean isLineEnd = character == '\n' || nextCharacter == -1
+                        || character == '\r' && nextCharacter != '\n';
+                character = nextCharacter;
+                if (!isLineEnd) {
+                    continue;
+                }
+                boolean isFence = isFence(line.toByteArray());
+                if (isFence && !isInCodeBlock && blob.size() > 0) {
+                    fileBlobs.add(addBlob(blob.toByteArray()));
+                    blob.reset();
+                }
+                line.writeTo(blob);
+                line.reset();
+                if (isFence && isInCodeBlock) {
+                    fileBlobs.add(addBlob(blob.toByteArray()));
+                    blob.reset();
+                }
+                isInCodeBlock = isFence != isInCodeBlock;
+            }
+        }
+        if (blob.size() > 0) {
+            fileBlobs.add(addBlob(blob.toByteArray()));
+        }
+        return fileBlobs;
+    }
+
+    /**
+     * Check whether a line starts a code block fence after leading whitespace, as {@link String#trim()} does.
+     */
+    private static boolean isFence(byte[] line) {
+        int start = 0;
+        while (start < line.length && (line[start] & 0xff) <= ' ') {
+            start++;
+        }
+        if (line.length - start < CODE_BLOCK_FENCE.length()) {
+            return false;
+        }
+        for (int index = 0; index < CODE_BLOCK_FENCE.length(); index++) {
+            if (line[start + index] != CODE_BLOCK_FENCE.charAt(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add a file as a single blob.
+     *
+     * @param file file to add
+     * @return hash of the blob of the file
+     * @throws IOException if copying the file to the blob directory fails
+     */
+    private List<String> addFile(File file) throws IOException {
+        String hash = getFileHash(file);
+        Path blobFile = blobDirectory.resolve(hash);
+        if (blobs.add(hash) && !Files.exists(blobFile)) {
+            Path tempFile = Files.createTempFile(blobDirectory, hash, null);
+            Files.copy(file.toPath(), tempFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempFile, blobFile, StandardCopyOption.REPLACE_EXISTING);
+            newBlobs++;
+        }
+        List<String> fileBlobs = new ArrayList<>();
+        fileBlobs.add(hash);
+        return fileBlobs;
+    }
+
+    private String addBlob(byte[] content) throws IOException {
+        String hash = getHash(content);
+        Path blobFile = blobDirectory.resolve(hash);
+        if (blobs.add(hash) && !Files.exists(blobFile)) {
+            Path tempFile = Files.createTempFile(blobDirectory, hash, null);
+            Files.write(tempFile, content);
+            Files.move(tempFile, blobFile, StandardCopyOption.REPLACE_EXISTING);
+            newBlobs++;
+        }
+        return hash;
+    }
+
+    private void deleteUnusedBlobs() throws IOException {
+        File[] blobFiles = blobDirectory.toFile().listFiles();
+        if (blobFiles != null) {
+            for (File blobFile : blobFiles) {
+                if (!blobs.contains(blobFile.getName())) {
+                    Files.delete(blobFile.toPath());
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the archive to a temporary file, which then replaces the archive file.
+     */
+    private void write(File archiveFile) throws IOException {
+        List<ZipEntrySource> entries = new ArrayList<>();
+        entries.add(new ByteSource(INDEX_ENTRY, GSON.toJson(index).getBytes(StandardCharsets.UTF_8)));
+        for (String hash : blobs) {
+            entries.add(new FileSource(BLOBS_ENTRY + hash, blobDirectory.resolve(hash).toFile()));
+        }
+        File tempFile = new File(archiveFile.getPath() + ".tmp");
+        ZipUtil.pack(entries.toArray(new ZipEntrySource[entries.size()]), tempFile);
+        Files.move(tempFile.toPath(), archiveFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Extract a content archive, reassembling each file from its blobs.
+     *
+     * @param archiveFile     path of the archive file
+     * @param outputDirectory directory to write the content to
+     */
+    public static void extract(String archiveFile, String outputDirectory) {
+        Path outputPath = Paths.get(outputDirectory).toAbsolutePath().normalize();
+        try (ZipFile zipFile = new ZipFile(archiveFile)) {
+            Index index = readIndex(zipFile, archiveFile);
+            for (Map.Entry<String, List<String>> file : index.files.entrySet()) {
+                Path path = outputPath.resolve(file.getKey()).normalize();
+                if (!path.startsWith(outputPath) || path.equals(outputPath)) {
+                    throw new ServiceException("Invalid file path in content archive: " + file.getKey());
+                }
+                Files.createDirectories(path.getParent());
+                try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(path.toFile()))) {
+                    for (String hash : file.getValue()) {
+                        writeBlob(zipFile, hash, outputStream, archiveFile);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new ServiceException("Error occurred when extracting content archive: " + archiveFile, e);
+        }
+    }
+
+    private static Index readIndex(ZipFile zipFile, String archiveFile) throws IOException {
+        ZipEntry indexEntry = zipFile.getEntry(INDEX_ENTRY);
+        if (indexEntry == null) {
+            throw new ServiceException("Index not found in content archive: " + archiveFile);
+        }
+        Index index;
+        try (Reader reader = new InputStreamReader(zipFile.getInputStream(indexEntry), StandardCharsets.UTF_8)) {
+            index = GSON.fromJson(reader, Index.class);
+        }
+        if (index == null || index.version != ARCHIVE_VERSION || index.files == null) {
+            throw new ServiceException("Unsupported content archive: " + archiveFile);
+        }
+        return index;
+    }
+
+    /**
+     * Write a blob of the archive, checking its content against its hash.
+     */
+    private static void writeBlob(ZipFile zipFile, String hash, OutputStream outputStream, String archiveFile)
+            throws IOException {
+        ZipEntry blobEntry = zipFile.getEntry(BLOBS_ENTRY + hash);
+        if (blobEntry == null) {
+            throw new ServiceException("Blob " + hash + " not found in content archive: " + archiveFile);
+        }
+        MessageDigest digest = newHashDigest();
+        try (InputStream inputStream = new DigestInputStream(zipFile.getInputStream(blobEntry), digest)) {
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, length);
+            }
+        }
+        if (!getHash(digest).equals(hash)) {
+            throw new ServiceException("Blob " + hash + " of content archive is corrupted: " + archiveFile);
+        }
+    }
+
+    /**
+     * Index entry of the archive.
+     */
+    private static class Index {
+        private int version = ARCHIVE_VERSION;
+        private Map<String, List<String>> files = new TreeMap<>();
+    }
+}
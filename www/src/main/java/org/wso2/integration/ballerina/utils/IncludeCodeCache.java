@@ -0,0 +1,201 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina.utils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.wso2.integration.ballerina.constants.Constants.CODE_SEGMENT_BEGIN;
+import static org.wso2.integration.ballerina.constants.Constants.CODE_SEGMENT_END;
+import static org.wso2.integration.ballerina.utils.Utils.getFileHash;
+import static org.wso2.integration.ballerina.utils.Utils.readLineWithTerminator;
+import static org.wso2.integration.ballerina.utils.Utils.skipLicenceHeader;
+
+/**
+ * Cache of code segments and content hashes of the code files included in markdown files. Each code file is read
+ * and parsed once per build, unless it is modified during the build. Thread safe.
+ */
+public class IncludeCodeCache {
+    private final ConcurrentMap<String, CodeFile> codeFiles = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, FileHash> fileHashes = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Get parsed code segments of a code file.
+     *
+     * @param file code file
+     * @return code segments of the code file
+     */
+    public CodeFile get(File file) {
+        String canonicalPath = getCanonicalPath(file);
+        long lastModified = file.lastModified();
+
+        CodeFile codeFile = codeFiles.get(canonicalPath);
+        if (codeFile != null && codeFile.lastModified == lastModified) {
+            hits.incrementAndGet();
+            return codeFile;
+        }
+        misses.incrementAndGet();
+        codeFile = new CodeFile(file, lastModified);
+        codeFiles.put(canonicalPath, codeFile);
+        return codeFile;
+    }
+
+    /**
+     * Get content hash of a code file, which is calculated once per build, unless the file is modified during the
+     * build.
+     *
+     * @param file code file
+     * @return hex encoded content hash
+     */
+    public String getHash(File file) {
+        String canonicalPath = getCanonicalPath(file);
+        long lastModified = file.lastModified();
+
+        FileHash fileHash = fileHashes.get(canonicalPath);
+        if (fileHash == null || fileHash.lastModified != lastModified) {
+            fileHash = new FileHash(getFileHash(file), lastModified);
+            fileHashes.put(canonicalPath, fileHash);
+        }
+        return fileHash.hash;
+    }
+
+    private static String getCanonicalPath(File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            throw new ServiceException("Error occurred when resolving code file path: " + file.getPath(), e);
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Content hash of a code file, with the last modified time it was calculated for.
+     */
+    private static class FileHash {
+        private final String hash;
+        private final long lastModified;
+
+        private FileHash(String hash, long lastModified) {
+            this.hash = hash;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * Code segments of a code file. The rest of the code is not kept, as whole code files are streamed when they are
+     * included.
+     */
+    public static class CodeFile {
+        private final String path;
+        private final long lastModified;
+        private final Map<String, String> segments = new HashMap<>();
+
+        private CodeFile(File file, long lastModified) {
+            this.path = file.getPath();
+            this.lastModified = lastModified;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+                skipLicenceHeader(reader, path);
+                readSegments(reader);
+            } catch (IOException e) {
+                throw new ServiceException("Error occurred when reading code file: " + path, e);
+            }
+        }
+
+        /**
+         * Read all code segments of the code line by line. A segment starts after the line of its
+         * CODE_SEGMENT_BEGIN comment and ends before its CODE_SEGMENT_END comment, and may contain other segments.
+         */
+        private void readSegments(BufferedReader reader) throws IOException {
+            Map<String, StringBuilder> openSegments = new LinkedHashMap<>();
+            String line;
+            while ((line = readLineWithTerminator(reader)) != null) {
+                int beginIndex = line.indexOf(CODE_SEGMENT_BEGIN);
+                int endIndex = line.indexOf(CODE_SEGMENT_END);
+                String beginName = beginIndex == -1 ? null
+                        : line.substring(beginIndex + CODE_SEGMENT_BEGIN.length()).trim();
+                String endName = endIndex == -1 ? null : line.substring(endIndex + CODE_SEGMENT_END.length()).trim();
+
+                StringBuilder endedSegment = endName == null ? null : openSegments.remove(endName);
+                if (endedSegment != null) {
+                    segments.put(endName, endedSegment.append(line, 0, endIndex).toString());
+                }
+                for (StringBuilder openSegment : openSegments.values()) {
+                    openSegment.append(line);
+                }
+                if (beginName != null && !segments.containsKey(beginName) && !openSegments.containsKey(beginName)) {
+                    openSegments.put(beginName, new StringBuilder());
+                }
+            }
+        }
+
+        /**
+         * Check whether the code has a code segment.
+         *
+         * @param segmentName segment name used in the code file (eg: segment_1)
+         * @return true if the code has the segment
+         */
+        public boolean hasSegment(String segmentName) {
+            return segments.containsKey(segmentName);
+        }
+
+        /**
+         * Get names of all code segments of the code.
+         *
+         * @return segment names
+         */
+        public Set<String> getSegmentNames() {
+            return Collections.unmodifiableSet(segments.keySet());
+        }
+
+        /**
+         * Get a code segment.
+         *
+         * @param segmentName segment name used in the code file (eg: segment_1)
+         * @return code segment as a string
+         */
+        public String getSegment(String segmentName) {
+            String segment = segments.get(segmentName);
+            if (segment == null) {
+                throw new ServiceException(
+                        "Invalid code segment including. segmentName: " + segmentName + ", file: " + path);
+            }
+            return segment;
+        }
+    }
+}
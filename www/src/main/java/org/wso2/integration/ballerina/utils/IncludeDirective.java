@@ -0,0 +1,222 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina.utils;
+
+import static org.wso2.integration.ballerina.constants.Constants.CLOSE_CURLY_BRACKET;
+import static org.wso2.integration.ballerina.constants.Constants.COMMENT_END;
+import static org.wso2.integration.ballerina.constants.Constants.COMMENT_START;
+import static org.wso2.integration.ballerina.constants.Constants.INCLUDE_ATTRIBUTE_FILE;
+import static org.wso2.integration.ballerina.constants.Constants.INCLUDE_ATTRIBUTE_LINES;
+import static org.wso2.integration.ballerina.constants.Constants.INCLUDE_ATTRIBUTE_SEGMENT;
+import static org.wso2.integration.ballerina.constants.Constants.INCLUDE_CODE_SEGMENT_TAG;
+import static org.wso2.integration.ballerina.constants.Constants.INCLUDE_CODE_TAG;
+import static org.wso2.integration.ballerina.constants.Constants.OPEN_CURLY_BRACKET;
+
+/**
+ * Include directive of a markdown file, parsed from a line in a single pass. Supported formats are
+ * <pre>
+ * &lt;!-- INCLUDE_CODE: guide/http_message_receiver.bal --&gt;
+ * &lt;!-- INCLUDE_CODE: { file: guide/http_message_receiver.bal, lines: 5-20 } --&gt;
+ * &lt;!-- INCLUDE_CODE_SEGMENT: { file: guide/http_message_receiver.bal, segment: segment_1 } --&gt;
+ * &lt;!-- INCLUDE_CODE_SEGMENT: { file: guide/http_message_receiver.bal, segment: segment_1, lines: 1-3 } --&gt;
+ * </pre>
+ * where the optional lines attribute selects an inclusive, 1-based line range of the included code.
+ */
+public class IncludeDirective {
+    private final boolean isSegment;
+    private final String location;
+    private String file;
+    private String segment;
+    private int firstLine;
+    private int lastLine;
+
+    private IncludeDirective(boolean isSegment, String location) {
+        this.isSegment = isSegment;
+        this.location = location;
+    }
+
+    /**
+     * Parse include directive of a line.
+     *
+     * @param line       line of the markdown file
+     * @param sourcePath path of the markdown file, used in error messages
+     * @param lineNumber line number of the line, used in error messages
+     * @return include directive, null if the line does not have an include tag
+     * @throws IncludeDirectiveException if the line has an include tag, but the directive is malformed
+     */
+    public static IncludeDirective parse(String line, String sourcePath, int lineNumber) {
+        int tagIndex = line.indexOf(INCLUDE_CODE_SEGMENT_TAG);
+        boolean isSegment = tagIndex != -1;
+        if (!isSegment) {
+            tagIndex = line.indexOf(INCLUDE_CODE_TAG);
+            if (tagIndex == -1) {
+                return null;
+            }
+        }
+
+        IncludeDirective directive = new IncludeDirective(isSegment, sourcePath + ":" + lineNumber);
+        int commentStart = line.indexOf(COMMENT_START);
+        if (commentStart == -1 || !isBlank(line, commentStart + COMMENT_START.length(), tagIndex)) {
+            throw directive.error("include tag should be the first content of a comment");
+        }
+        int commentEnd = line.indexOf(COMMENT_END, tagIndex);
+        if (commentEnd == -1) {
+            throw directive.error("comment is not closed with " + COMMENT_END);
+        }
+
+        int valueStart = skipWhitespace(line, tagIndex + (isSegment ? INCLUDE_CODE_SEGMENT_TAG : INCLUDE_CODE_TAG)
+                .length(), commentEnd);
+        if (line.startsWith(OPEN_CURLY_BRACKET, valueStart)) {
+            int attributesEnd = line.lastIndexOf(CLOSE_CURLY_BRACKET, commentEnd);
+            if (attributesEnd < valueStart || !isBlank(line, attributesEnd + 1, commentEnd)) {
+                throw directive.error("attributes are not closed with " + CLOSE_CURLY_BRACKET);
+            }
+            directive.parseAttributes(line, valueStart + 1, attributesEnd);
+        } else if (!isSegment) {
+            directive.file = line.substring(valueStart, commentEnd).trim();
+        }
+
+        if (directive.file == null || directive.file.isEmpty()) {
+            throw directive.error("file is not specified");
+        }
+        if (isSegment && (directive.segment == null || directive.segment.isEmpty())) {
+            throw directive.error("segment is not specified");
+        }
+        return directive;
+    }
+
+    /**
+     * Parse comma separated key: value attributes between the given indexes.
+     */
+    private void parseAttributes(String line, int start, int end) {
+        int attributeStart = start;
+        while (attributeStart < end) {
+            int attributeEnd = line.indexOf(',', attributeStart);
+            if (attributeEnd == -1 || attributeEnd > end) {
+                attributeEnd = end;
+            }
+            int separator = line.indexOf(':', attributeStart);
+            if (separator == -1 || separator > attributeEnd) {
+                throw error("attribute should be in key: value format: "
+                        + line.substring(attributeStart, attributeEnd).trim());
+            }
+            String key = line.substring(attributeStart, separator).trim();
+            String value = line.substring(separator + 1, attributeEnd).trim();
+            switch (key) {
+            case INCLUDE_ATTRIBUTE_FILE:
+                file = value;
+                break;
+            case INCLUDE_ATTRIBUTE_SEGMENT:
+                if (!isSegment) {
+                    throw error("segment attribute is only allowed in " + INCLUDE_CODE_SEGMENT_TAG);
+                }
+                segment = value;
+                break;
+            case INCLUDE_ATTRIBUTE_LINES:
+                parseLineRange(value);
+                break;
+            default:
+                throw error("unknown attribute: " + key);
+            }
+            attributeStart = attributeEnd + 1;
+        }
+    }
+
+    private void parseLineRange(String value) {
+        int separator = value.indexOf('-');
+        try {
+            if (separator != -1) {
+                firstLine = Integer.parseInt(value.substring(0, separator).trim());
+                lastLine = Integer.parseInt(value.substring(separator + 1).trim());
+            }
+        } catch (NumberFormatException e) {
+            firstLine = 0;
+        }
+        if (firstLine < 1 || lastLine < firstLine) {
+            throw error("lines should be a range of line numbers (eg: 5-20): " + value);
+        }
+    }
+
+    private static int skipWhitespace(String line, int index, int end) {
+        while (index < end && Character.isWhitespace(line.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isBlank(String line, int start, int end) {
+        return start <= end && skipWhitespace(line, start, end) == end;
+    }
+
+    /**
+     * Create an error of this directive.
+     *
+     * @param message error message
+     * @return exception with the location of the directive
+     */
+    public IncludeDirectiveException error(String message) {
+        return new IncludeDirectiveException(location, message);
+    }
+
+    /**
+     * Check whether the directive includes a code segment.
+     *
+     * @return true for INCLUDE_CODE_SEGMENT directives
+     */
+    public boolean isSegment() {
+        return isSegment;
+    }
+
+    /**
+     * Get path of the included code file, relative to the markdown file.
+     *
+     * @return path of the included code file
+     */
+    public String getFile() {
+        return file;
+    }
+
+    public String getSegment() {
+        return segment;
+    }
+
+    /**
+     * Get the location of the directive.
+     *
+     * @return markdown file path and line number of the directive
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Check whether the directive has a line range.
+     *
+     * @return true if only a line range of the code should be included
+     */
+    public boolean hasLineRange() {
+        return firstLine > 0;
+    }
+
+    public int getFirstLine() {
+        return firstLine;
+    }
+
+    public int getLastLine() {
+        return lastLine;
+    }
+}
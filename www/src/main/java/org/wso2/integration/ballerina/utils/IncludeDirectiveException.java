@@ -0,0 +1,39 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina.utils;
+
+/**
+ * Exception of an invalid include directive, carrying the location of the directive in its markdown file.
+ */
+public class IncludeDirectiveException extends ServiceException {
+    private final String location;
+
+    /**
+     * Create an exception of an include directive.
+     *
+     * @param location location of the directive, as path:line of its markdown file
+     * @param message  error message, prefixed with the location
+     */
+    IncludeDirectiveException(String location, String message) {
+        super("Invalid include directive at " + location + ": " + message);
+        this.location = location;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+}
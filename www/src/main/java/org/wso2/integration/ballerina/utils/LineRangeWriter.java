@@ -0,0 +1,89 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer passing only an inclusive, 1-based line range of the written text to another writer. The line terminator
+ * of the last line in the range is not passed.
+ */
+public class LineRangeWriter extends Writer {
+    private final Writer writer;
+    private final int firstLine;
+    private final int lastLine;
+    private int lineNumber = 1;
+
+    /**
+     * Create a writer for a line range.
+     *
+     * @param writer    writer to pass the lines in the range
+     * @param firstLine first line of the range
+     * @param lastLine  last line of the range
+     */
+    public LineRangeWriter(Writer writer, int firstLine, int lastLine) {
+        this.writer = writer;
+        this.firstLine = firstLine;
+        this.lastLine = lastLine;
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) throws IOException {
+        int end = offset + length;
+        int rangeStart = -1;
+        for (int index = offset; index < end; index++) {
+            boolean isNewLine = buffer[index] == '\n';
+            boolean isInRange = lineNumber >= firstLine && (lineNumber < lastLine || lineNumber == lastLine
+                    && !isNewLine);
+            if (isInRange && rangeStart == -1) {
+                rangeStart = index;
+            } else if (!isInRange && rangeStart != -1) {
+                writer.write(buffer, rangeStart, index - rangeStart);
+                rangeStart = -1;
+            }
+            if (isNewLine) {
+                lineNumber++;
+            }
+        }
+        if (rangeStart != -1) {
+            writer.write(buffer, rangeStart, end - rangeStart);
+        }
+    }
+
+    /**
+     * Get the number of lines written so far.
+     *
+     * @return number of lines
+     */
+    public int getLineCount() {
+        return lineNumber;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Flush the writer. The underlying writer is not closed, as more content is written to it after the lines.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
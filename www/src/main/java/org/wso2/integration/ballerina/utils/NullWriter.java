@@ -0,0 +1,44 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina.utils;
+
+import java.io.Writer;
+
+/**
+ * Writer discarding all written text, used where only the errors of writing some content are needed.
+ */
+public class NullWriter extends Writer {
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+        // Written text is discarded.
+    }
+
+    @Override
+    public void write(String text, int offset, int length) {
+        // Written text is discarded, without copying it to a buffer first.
+    }
+
+    @Override
+    public void flush() {
+        // Nothing is buffered.
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release.
+    }
+}
@@ -16,29 +16,52 @@
 
 package org.wso2.integration.ballerina.utils;
 
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
-
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 import static org.wso2.integration.ballerina.constants.Constants.BALLERINA_CODE_MD_SYNTAX;
 import static org.wso2.integration.ballerina.constants.Constants.CODE;
 import static org.wso2.integration.ballerina.constants.Constants.CODE_MD_SYNTAX;
 import static org.wso2.integration.ballerina.constants.Constants.EMPTY_STRING;
-import static org.wso2.integration.ballerina.constants.Constants.INDEX_MD;
 import static org.wso2.integration.ballerina.constants.Constants.JAVA_CODE_MD_SYNTAX;
 import static org.wso2.integration.ballerina.constants.Constants.LICENCE_LAST_LINE;
 import static org.wso2.integration.ballerina.constants.Constants.NEW_LINE;
+import static org.wso2.integration.ballerina.constants.Constants.PROCESSED_FILE_SUFFIX;
 
 /**
  * Util functions used for site builder.
  */
 public class Utils {
     private static final Logger logger = Logger.getLogger(Utils.class.getName());
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
 
     /**
      * Create a directory.
@@ -61,24 +84,87 @@ public class Utils {
      * @param directory path of the directory
      */
     public static void deleteDirectory(String directory) {
-        try {
-            FileUtils.deleteDirectory(new File(directory));
-        } catch (IOException e) {
-            throw new ServiceException("Error occurred while deleting temporary directory " + directory, e);
+        deleteDirectory(directory, 1);
+    }
+
+    /**
+     * Delete a directory, deleting its files in parallel.
+     *
+     * @param directory   path of the directory
+     * @param parallelism number of threads deleting files
+     */
+    public static void deleteDirectory(String directory, int parallelism) {
+        deleteAll(Collections.singletonList(Paths.get(directory)), parallelism);
+    }
+
+    /**
+     * Delete a file if it exists.
+     *
+     * @param file file to delete
+     */
+    public static void deleteFile(File file) {
+        if (file.exists() && !file.delete()) {
+            throw new ServiceException("Error occurred when deleting file: " + file.getPath());
         }
     }
 
     /**
-     * Copy directory content to another directory.
+     * Delete the directories of a deleted file which are left empty, up to the given root directory.
      *
-     * @param src  path of the source directory
-     * @param dest path of the destination directory
+     * @param file          deleted file
+     * @param rootDirectory directory which is kept even if empty
      */
-    public static void copyDirectoryContent(String src, String dest) {
+    public static void deleteEmptyParents(File file, String rootDirectory) {
+        File root = new File(rootDirectory).getAbsoluteFile();
+        File directory = file.getAbsoluteFile().getParentFile();
+        while (directory != null && !directory.equals(root) && directory.toPath().startsWith(root.toPath())) {
+            String[] children = directory.list();
+            if (children == null || children.length > 0 || !directory.delete()) {
+                return;
+            }
+            directory = directory.getParentFile();
+        }
+    }
+
+    /**
+     * Copy a file, keeping its last modified time, unless the destination has the same size and last modified time.
+     * If only the last modified time differs, as after a fresh checkout of the repository, the file is not copied when
+     * the content is the same either.
+     *
+     * @param src  source file
+     * @param dest destination file
+     * @return true if the file was copied
+     */
+    public static boolean copyFileIfChanged(File src, File dest) {
+        if (dest.exists() && dest.length() == src.length()) {
+            if (dest.lastModified() == src.lastModified()) {
+                return false;
+            }
+            if (getFileHash(src).equals(getFileHash(dest)) && dest.setLastModified(src.lastModified())) {
+                return false;
+            }
+        }
         try {
-            FileUtils.copyDirectory(new File(src), new File(dest));
+            Files.createDirectories(dest.getParentFile().toPath());
+            // Replace the file instead of writing it in place, it may be hard linked to published content.
+            Path tempFile = Paths.get(dest.getPath() + PROCESSED_FILE_SUFFIX);
+            try (FileChannel srcChannel = FileChannel.open(src.toPath(), StandardOpenOption.READ);
+                    FileChannel destChannel = FileChannel.open(tempFile, StandardOpenOption.WRITE,
+                            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long size = srcChannel.size();
+                long position = 0;
+                while (position < size) {
+                    position += srcChannel.transferTo(position, size - position, destChannel);
+                }
+            }
+            Files.move(tempFile, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            if (!dest.setLastModified(src.lastModified())) {
+                logger.warning("Could not set last modified time of the file: " + dest.getPath());
+            }
+            return true;
         } catch (IOException e) {
-            throw new ServiceException("Error when copying directory content. src: " + src + ", dest: " + dest, e);
+            throw new ServiceException("Error when copying file. src: " + src.getPath() + ", dest: " + dest.getPath(),
+                    e);
         }
     }
 
@@ -93,68 +179,271 @@ public class Utils {
     }
 
     /**
-     * Rename a file with a given name and move it to a directory.
+     * Run tasks using a fixed pool of threads and wait for all of them to complete.
      *
-     * @param file        file want to rename and move
-     * @param destination path of the destination directory
-     * @param newFileName new file name
+     * @param tasks       tasks to run
+     * @param parallelism number of threads running the tasks
+     * @param <T>         type of the task results
+     * @return results of the tasks, in the order of the tasks
      */
-    public static void renameAndMoveFile(File file, String destination, String newFileName) {
-        if (!file.renameTo(new File(destination + newFileName + ".md"))) {
-            throw new ServiceException(
-                    "Error occurred while moving file to destination. file: " + file.getPath() + ", dest:" + destination
-                            + file.getName());
+    public static <T> List<T> invokeAll(List<Callable<T>> tasks, int parallelism) {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ServiceException) {
+                throw (ServiceException) e.getCause();
+            }
+            throw new ServiceException("Error occurred when running parallel tasks", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted when running parallel tasks", e);
+        } finally {
+            executor.shutdownNow();
         }
     }
 
     /**
-     * Delete all files other than index.md files in the directory.
+     * Delete files and directories with their content. Files are deleted by a fixed pool of threads as they are found
+     * when walking the directories, and directories are deleted after all files are deleted. Paths that do not exist
+     * are ignored.
      *
-     * @param directory directory
+     * @param paths       paths of the files and directories
+     * @param parallelism number of threads deleting files
      */
-    public static void deleteNonIndexFiles(File directory) {
-        File[] listOfFiles = directory.listFiles();
+    private static void deleteAll(List<Path> paths, int parallelism) {
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        final List<Future<Void>> fileDeletions = new ArrayList<>();
+        // Directories in the order their walk is completed, which is after all their sub directories.
+        final List<Path> directories = new ArrayList<>();
+        try {
+            for (Path path : paths) {
+                if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+                    continue;
+                }
+                Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(final Path file, BasicFileAttributes attrs) {
+                        fileDeletions.add(executor.submit(new Callable<Void>() {
+                            @Override
+                            public Void call() throws IOException {
+                                Files.delete(file);
+                                return null;
+                            }
+                        }));
+                        return FileVisitResult.CONTINUE;
+                    }
 
-        if (listOfFiles != null) {
-            for (File file : listOfFiles) {
-                if (!(file.getName().equals(INDEX_MD))) {
-                    try {
-                        FileUtils.forceDelete(file);
-                    } catch (IOException e) {
-                        throw new ServiceException("Error occurred when deleting file: " + file.getPath(), e);
+                    @Override
+                    public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                        if (exc != null) {
+                            throw exc;
+                        }
+                        directories.add(dir);
+                        return FileVisitResult.CONTINUE;
                     }
-                }
+                });
+            }
+            for (Future<Void> fileDeletion : fileDeletions) {
+                fileDeletion.get();
             }
+            for (Path directory : directories) {
+                Files.delete(directory);
+            }
+        } catch (IOException e) {
+            throw new ServiceException("Error occurred when deleting " + paths, e);
+        } catch (ExecutionException e) {
+            throw new ServiceException("Error occurred when deleting " + paths, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted when deleting " + paths, e);
+        } finally {
+            executor.shutdownNow();
         }
     }
 
     /**
-     * Get file content as a string.
+     * Get SHA-256 hash of the file content as a hex string.
      *
-     * @param file file which want to content as string
-     * @return file content as a string
+     * @param file file to hash
+     * @return hex encoded content hash
      */
-    public static String getCodeFile(File file) {
+    public static String getFileHash(File file) {
+        try (InputStream inputStream = new FileInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return toHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new ServiceException("Error occurred when calculating hash of the file: " + file.getPath(), e);
+        }
+    }
+
+    /**
+     * Get SHA-256 hash of content as a hex string.
+     *
+     * @param content content to hash
+     * @return hex encoded content hash
+     */
+    public static String getHash(byte[] content) {
         try {
-            return IOUtils.toString(new FileInputStream(file), String.valueOf(StandardCharsets.UTF_8));
-        } catch (IOException e) {
-            throw new ServiceException("Error occurred when converting file content to string. file: " + file.getPath(),
-                    e);
+            return toHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new ServiceException("Error occurred when calculating hash of content", e);
         }
     }
 
     /**
-     * Remove licence header of the code.
+     * Create a digest of the same hash as {@link #getFileHash(File)}, to hash content while it is read.
      *
-     * @param code code file content
-     * @return code without licence header
+     * @return SHA-256 digest
      */
-    public static String removeLicenceHeader(String code) {
-        if (code.contains(LICENCE_LAST_LINE)) {
-            String[] temp = code.split(LICENCE_LAST_LINE);
-            return temp[1].trim();
-        } else {
-            throw new ServiceException("Licence header is not in the correct format. code: " + code);
+    public static MessageDigest newHashDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new ServiceException("Error occurred when creating hash digest", e);
+        }
+    }
+
+    /**
+     * Get hash of the content given to a digest as a hex string.
+     *
+     * @param digest digest created by {@link #newHashDigest()}
+     * @return hex encoded content hash
+     */
+    public static String getHash(MessageDigest digest) {
+        return toHex(digest.digest());
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xf];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Read a line including its line terminator. A line is terminated by a line feed, a carriage return or a carriage
+     * return followed by a line feed, the same as in {@link BufferedReader#readLine()}.
+     *
+     * @param reader reader to read from
+     * @return line including its line terminator, null if the end of the stream has been reached
+     * @throws IOException if reading fails
+     */
+    public static String readLineWithTerminator(BufferedReader reader) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int character;
+        while ((character = reader.read()) != -1) {
+            line.append((char) character);
+            if (character == '\n') {
+                break;
+            }
+            if (character == '\r') {
+                reader.mark(1);
+                if (reader.read() == '\n') {
+                    line.append('\n');
+                } else {
+                    reader.reset();
+                }
+                break;
+            }
+        }
+        return line.length() > 0 ? line.toString() : null;
+    }
+
+    /**
+     * Get the length of a line read by {@link #readLineWithTerminator(BufferedReader)}, without its line terminator.
+     *
+     * @param lineWithTerminator line including its line terminator
+     * @return end index of the line content
+     */
+    public static int getLineEnd(String lineWithTerminator) {
+        int lineEnd = lineWithTerminator.length();
+        if (lineWithTerminator.endsWith("\n")) {
+            lineEnd--;
+        }
+        if (lineEnd > 0 && lineWithTerminator.charAt(lineEnd - 1) == '\r') {
+            lineEnd--;
+        }
+        return lineEnd;
+    }
+
+    /**
+     * Skip the licence header of a code file. Only the characters up to the end of the licence header are read, with
+     * the reader left positioned at the first character after it.
+     *
+     * @param reader reader of the code file
+     * @param path   path of the code file, used in error messages
+     * @throws IOException if reading fails
+     */
+    public static void skipLicenceHeader(Reader reader, String path) throws IOException {
+        // Last characters read, compared with the last line of the licence header after each character.
+        StringBuilder lastCharacters = new StringBuilder(LICENCE_LAST_LINE.length() + 1);
+        int character;
+        while ((character = reader.read()) != -1) {
+            lastCharacters.append((char) character);
+            if (lastCharacters.length() > LICENCE_LAST_LINE.length()) {
+                lastCharacters.deleteCharAt(0);
+            }
+            if (lastCharacters.length() == LICENCE_LAST_LINE.length()
+                    && lastCharacters.indexOf(LICENCE_LAST_LINE) == 0) {
+                return;
+            }
+        }
+        throw new ServiceException("Licence header is not in the correct format, the licence header should end with \""
+                + LICENCE_LAST_LINE + "\". file: " + path);
+    }
+
+    /**
+     * Write code of a code file without its licence header and surrounding whitespace. The code is streamed to the
+     * writer, so memory used does not depend on the size of the code file.
+     *
+     * @param file   code file
+     * @param writer writer to write the code
+     * @throws IOException if reading or writing fails
+     */
+    public static void writeCodeWithoutLicenceHeader(File file, Writer writer) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            skipLicenceHeader(reader, file.getPath());
+
+            // Whitespace is held back until code follows it, so that leading and trailing whitespace is not written.
+            StringBuilder whitespace = new StringBuilder();
+            boolean isCodeStarted = false;
+            char[] buffer = new char[8192];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                int codeStart = -1;
+                for (int index = 0; index < read; index++) {
+                    if (buffer[index] <= ' ') {
+                        if (codeStart != -1) {
+                            writer.write(buffer, codeStart, index - codeStart);
+                            codeStart = -1;
+                        }
+                        if (isCodeStarted) {
+                            whitespace.append(buffer[index]);
+                        }
+                    } else if (codeStart == -1) {
+                        writer.append(whitespace);
+                        whitespace.setLength(0);
+                        codeStart = index;
+                        isCodeStarted = true;
+                    }
+                }
+                if (codeStart != -1) {
+                    writer.write(buffer, codeStart, read - codeStart);
+                }
+            }
         }
     }
 
@@ -0,0 +1,167 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.integration.ballerina.utils.ServiceException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.wso2.integration.ballerina.constants.Constants.CONTENT_PREVIOUS_DIR;
+import static org.wso2.integration.ballerina.constants.Constants.CONTENT_STAGING_DIR;
+import static org.wso2.integration.ballerina.constants.Constants.GUIDE_TEMPLATES_DIR;
+import static org.wso2.integration.ballerina.utils.Utils.copyFileIfChanged;
+
+/**
+ * Tests of staging, publishing and rolling back the hugo content directory with {@link ContentPublisher}.
+ */
+public class ContentPublisherTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path siteDirectory;
+    private Path contentDirectory;
+    private Path stagingDirectory;
+    private Path previousDirectory;
+    private ContentPublisher publisher;
+
+    @Before
+    public void createContent() throws IOException {
+        siteDirectory = temporaryFolder.getRoot().toPath();
+        contentDirectory = siteDirectory.resolve(GUIDE_TEMPLATES_DIR);
+        stagingDirectory = siteDirectory.resolve(CONTENT_STAGING_DIR);
+        previousDirectory = siteDirectory.resolve(CONTENT_PREVIOUS_DIR);
+        write(contentDirectory.resolve("_index.md"), "home");
+        write(contentDirectory.resolve("intro/_index.md"), "intro index");
+        write(contentDirectory.resolve("intro/guide.md"), "intro post");
+        write(contentDirectory.resolve("guides/guide/guide.md"), "post");
+        write(contentDirectory.resolve("guides/guide/images/diagram.svg"), "diagram");
+        write(contentDirectory.resolve("guides/removed/images/diagram.svg"), "removed diagram");
+        publisher = new ContentPublisher(siteDirectory, 1);
+    }
+
+    @Test
+    public void testPrepareKeepsContentNotGenerated() throws IOException {
+        publisher.prepare();
+
+        assertEquals("home", read(stagingDirectory.resolve("_index.md")));
+        assertEquals("intro index", read(stagingDirectory.resolve("intro/_index.md")));
+        assertFalse(Files.exists(stagingDirectory.resolve("intro/guide.md")));
+        assertFalse(Files.exists(stagingDirectory.resolve("guides/guide/guide.md")));
+    }
+
+    @Test
+    public void testPrepareLinksCurrentResources() throws IOException {
+        publisher.prepare();
+
+        Path resource = contentDirectory.resolve("guides/guide/images/diagram.svg");
+        Path stagedResource = stagingDirectory.resolve("guides/guide/images/diagram.svg");
+        assertTrue(Files.isSameFile(resource, stagedResource));
+    }
+
+    @Test
+    public void testChangedResourceDoesNotModifyPublishedResource() throws IOException {
+        publisher.prepare();
+        Path source = temporaryFolder.newFile("diagram.svg").toPath();
+        write(source, "changed diagram");
+
+        Path stagedResource = stagingDirectory.resolve("guides/guide/images/diagram.svg");
+        assertTrue(copyFileIfChanged(source.toFile(), stagedResource.toFile()));
+
+        assertEquals("changed diagram", read(stagedResource));
+        assertEquals("diagram", read(contentDirectory.resolve("guides/guide/images/diagram.svg")));
+    }
+
+    @Test
+    public void testDeleteUnbuiltResources() {
+        publisher.prepare();
+        File builtResource = stagingDirectory.resolve("guides/guide/images/diagram.svg").toFile();
+
+        publisher.deleteUnbuiltResources(Collections.singleton(builtResource));
+
+        assertTrue(builtResource.exists());
+        assertFalse(Files.exists(stagingDirectory.resolve("guides/removed/images/diagram.svg")));
+    }
+
+    @Test
+    public void testPublishKeepsPreviousContent() throws IOException {
+        publisher.prepare();
+        write(stagingDirectory.resolve("guides/guide/guide.md"), "new post");
+
+        publisher.publish();
+
+        assertEquals("new post", read(contentDirectory.resolve("guides/guide/guide.md")));
+        assertEquals("post", read(previousDirectory.resolve("guides/guide/guide.md")));
+        assertFalse(Files.exists(stagingDirectory));
+    }
+
+    @Test
+    public void testFailedPublishRestoresContent() {
+        // Publishing without a staging directory fails on the second rename.
+        try {
+            publisher.publish();
+            fail("Publish without a staging directory succeeded");
+        } catch (ServiceException e) {
+            assertEquals("post", read(contentDirectory.resolve("guides/guide/guide.md")));
+            assertFalse(Files.exists(previousDirectory));
+        }
+    }
+
+    @Test
+    public void testRollbackSwapsPreviousContent() throws IOException {
+        publisher.prepare();
+        write(stagingDirectory.resolve("guides/guide/guide.md"), "new post");
+        publisher.publish();
+
+        publisher.rollback();
+        assertEquals("post", read(contentDirectory.resolve("guides/guide/guide.md")));
+        assertEquals("new post", read(previousDirectory.resolve("guides/guide/guide.md")));
+
+        publisher.rollback();
+        assertEquals("new post", read(contentDirectory.resolve("guides/guide/guide.md")));
+    }
+
+    @Test(expected = ServiceException.class)
+    public void testRollbackWithoutPreviousContent() {
+        publisher.rollback();
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) {
+        try {
+            return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new AssertionError("Could not read " + file, e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wso2.integration.ballerina.utils.ServiceException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of parsing the include directives of a markdown file with {@link IncludeGraph}.
+ */
+public class IncludeGraphTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File markdownFile;
+
+    @Before
+    public void createMarkdownFile() throws IOException {
+        markdownFile = temporaryFolder.newFile("README.md");
+        Files.write(markdownFile.toPath(), Arrays.asList(
+                "# Guide",
+                "<!-- INCLUDE_CODE: guide/main.bal -->",
+                "text",
+                "<!-- INCLUDE_CODE_SEGMENT: { file: guide/main.bal } -->",
+                "<!-- INCLUDE_CODE_SEGMENT: { file: guide/service.bal, segment: segment_1 } -->"),
+                StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testMalformedDirectiveIsRecorded() {
+        List<String> errors = new ArrayList<>();
+
+        List<IncludeGraph.Include> includes = IncludeGraph.parseIncludes(markdownFile, errors);
+
+        assertEquals(2, includes.size());
+        assertEquals("guide/main.bal", includes.get(0).getDirective().getFile());
+        assertEquals("segment_1", includes.get(1).getDirective().getSegment());
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0), errors.get(0).contains(markdownFile.getPath() + ":4: segment is not specified"));
+    }
+
+    @Test
+    public void testLineTerminators() throws IOException {
+        Files.write(markdownFile.toPath(), ("# Guide\r\rtext\r\n\n"
+                + "<!-- INCLUDE_CODE_SEGMENT: { file: guide/main.bal } -->\r").getBytes(StandardCharsets.UTF_8));
+        List<String> errors = new ArrayList<>();
+
+        IncludeGraph.parseIncludes(markdownFile, errors);
+
+        // A lone carriage return terminates a line, the same as when the site build processes the file.
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0), errors.get(0).contains(markdownFile.getPath() + ":5: segment is not specified"));
+    }
+
+    @Test(expected = ServiceException.class)
+    public void testMalformedDirectiveFailsBuild() {
+        IncludeGraph.parseIncludes(markdownFile, null);
+    }
+}
@@ -0,0 +1,158 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina.utils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the up to date and stale output checks of {@link BuildManifest}.
+ */
+public class BuildManifestTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private String output;
+
+    @Before
+    public void createOutput() throws IOException {
+        output = temporaryFolder.newFile("guide.md").getPath();
+    }
+
+    @Test
+    public void testUnchangedEntryIsUpToDate() {
+        BuildManifest manifest = new BuildManifest();
+        manifest.put("guide/README.md", entry(output, "hash", "guide/main.bal", "codeHash"));
+
+        assertTrue(manifest.isUpToDate("guide/README.md", entry(output, "hash", "guide/main.bal", "codeHash")));
+    }
+
+    @Test
+    public void testChangedMarkdownFileIsNotUpToDate() {
+        BuildManifest manifest = new BuildManifest();
+        manifest.put("guide/README.md", entry(output, "hash", "guide/main.bal", "codeHash"));
+
+        assertFalse(manifest.isUpToDate("guide/README.md", entry(output, "newHash", "guide/main.bal", "codeHash")));
+    }
+
+    @Test
+    public void testChangedCodeFileIsNotUpToDate() {
+        BuildManifest manifest = new BuildManifest();
+        manifest.put("guide/README.md", entry(output, "hash", "guide/main.bal", "codeHash"));
+
+        assertFalse(manifest.isUpToDate("guide/README.md", entry(output, "hash", "guide/main.bal", "newCodeHash")));
+        assertFalse(manifest.isUpToDate("guide/README.md", entry(output, "hash", "guide/other.bal", "codeHash")));
+    }
+
+    @Test
+    public void testMissingOutputIsNotUpToDate() {
+        BuildManifest manifest = new BuildManifest();
+        assertTrue(new File(output).delete());
+        manifest.put("guide/README.md", entry(output, "hash", "guide/main.bal", "codeHash"));
+
+        assertFalse(manifest.isUpToDate("guide/README.md", entry(output, "hash", "guide/main.bal", "codeHash")));
+    }
+
+    @Test
+    public void testNewFileIsNotUpToDate() {
+        assertFalse(new BuildManifest().isUpToDate("guide/README.md", entry(output, "hash", "a.bal", "codeHash")));
+    }
+
+    @Test
+    public void testStaleOutputs() {
+        BuildManifest previousManifest = new BuildManifest();
+        previousManifest.put("kept/README.md", entry("content/kept.md", "hash", "kept/main.bal", "codeHash"));
+        previousManifest.put("removed/README.md", entry("content/removed.md", "hash", "a.bal", "codeHash"));
+        previousManifest.put("moved/README.md", entry("content/moved.md", "hash", "a.bal", "codeHash"));
+        BuildManifest currentManifest = new BuildManifest();
+        currentManifest.put("kept/README.md", entry("content/kept.md", "newHash", "kept/main.bal", "codeHash"));
+        // Same output generated from another markdown file is not stale.
+        currentManifest.put("renamed/README.md", entry("content/moved.md", "hash", "a.bal", "codeHash"));
+
+        assertEquals(Collections.singleton("content/removed.md"), previousManifest.getStaleOutputs(currentManifest));
+    }
+
+    @Test
+    public void testStaleResources() {
+        BuildManifest previousManifest = new BuildManifest();
+        previousManifest.addResource("content/kept/image.png");
+        previousManifest.addResource("content/removed/image.png");
+        previousManifest.addResource("content/removed/resources/data.json");
+        BuildManifest currentManifest = new BuildManifest();
+        currentManifest.addResource("content/kept/image.png");
+
+        assertEquals(new HashSet<>(Arrays.asList("content/removed/image.png", "content/removed/resources/data.json")),
+                previousManifest.getStaleOutputs(currentManifest));
+    }
+
+    @Test
+    public void testRemoveResourcesIn() {
+        BuildManifest manifest = new BuildManifest();
+        manifest.addResource("content/guide/image.png");
+        manifest.addResource("content/guide/resources/data.json");
+        manifest.addResource("content/guide2/image.png");
+        manifest.removeResourcesIn("content/guide");
+
+        assertEquals(Collections.singleton("content/guide2/image.png"), manifest.getStaleOutputs(new BuildManifest()));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        String manifestFile = new File(temporaryFolder.getRoot(), "manifest.json").getPath();
+        BuildManifest manifest = new BuildManifest();
+        manifest.put("guide/README.md", entry(output, "hash", "guide/main.bal", "codeHash"));
+        manifest.addResource("content/guide/image.png");
+        manifest.save(manifestFile);
+
+        BuildManifest loadedManifest = BuildManifest.load(manifestFile);
+        assertTrue(loadedManifest.isUpToDate("guide/README.md", entry(output, "hash", "guide/main.bal", "codeHash")));
+        assertEquals(Collections.singleton("guide/README.md"), loadedManifest.getDependents("guide/main.bal"));
+        assertEquals(new HashSet<>(Arrays.asList(output, "content/guide/image.png")),
+                loadedManifest.getStaleOutputs(new BuildManifest()));
+    }
+
+    @Test
+    public void testOutdatedManifestIsEmpty() throws IOException {
+        File manifestFile = temporaryFolder.newFile("manifest.json");
+        Files.write(manifestFile.toPath(), "{\"version\": 0, \"files\": {}}".getBytes(StandardCharsets.UTF_8));
+
+        BuildManifest manifest = BuildManifest.load(manifestFile.getPath());
+        assertTrue(manifest.getFilesIn("guide").isEmpty());
+    }
+
+    private static BuildManifest.Entry entry(String output, String hash, String dependency, String dependencyHash) {
+        Map<String, String> dependencies = new HashMap<>();
+        dependencies.put(dependency, dependencyHash);
+        return new BuildManifest.Entry(output, hash, dependencies);
+    }
+}
@@ -0,0 +1,114 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina.utils;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of creating a {@link ContentArchive} and extracting it back to the same content.
+ */
+public class ContentArchiveTest {
+    private static final String CODE_BLOCK = "```ballerina\nimport ballerina/http;\n```\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Map<String, byte[]> files = new LinkedHashMap<>();
+    private File contentDirectory;
+    private File blobDirectory;
+    private String archiveFile;
+
+    @Before
+    public void createContent() throws IOException {
+        contentDirectory = temporaryFolder.newFolder("content");
+        blobDirectory = temporaryFolder.newFolder("blobs");
+        archiveFile = new File(temporaryFolder.getRoot(), "content.zip").getPath();
+
+        files.put("guides/a/README.md", utf8("# Guide A\n\n" + CODE_BLOCK + "text\n  " + CODE_BLOCK + "end"));
+        files.put("guides/b/README.md", utf8("# Guide B\r\n" + CODE_BLOCK.replace("\n", "\r\n") + "\rlone\r"
+                + "```\nunclosed code block\n"));
+        // Bytes which are not valid UTF-8 are kept as they are.
+        files.put("guides/c/README.md", new byte[] { '#', ' ', (byte) 0xc3, '\n', '`', '`', '`', '\n', (byte) 0xff,
+                '\n', '`', '`', '`' });
+        files.put("guides/a/resources/image.png", new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0, 1 });
+        files.put("guides/empty.md", new byte[0]);
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            Path path = contentDirectory.toPath().resolve(file.getKey());
+            Files.createDirectories(path.getParent());
+            Files.write(path, file.getValue());
+        }
+    }
+
+    @Test
+    public void testExtractedFilesAreIdentical() throws IOException {
+        ContentArchive.create(contentDirectory.getPath(), blobDirectory.getPath(), archiveFile, new BuildMetrics());
+        File outputDirectory = new File(temporaryFolder.getRoot(), "extracted");
+        ContentArchive.extract(archiveFile, outputDirectory.getPath());
+
+        assertEquals(files.keySet(), listFiles(outputDirectory));
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            assertArrayEquals(file.getKey(), file.getValue(),
+                    Files.readAllBytes(outputDirectory.toPath().resolve(file.getKey())));
+        }
+    }
+
+    @Test
+    public void testCodeBlocksAreStoredOnce() {
+        ContentArchive.create(contentDirectory.getPath(), blobDirectory.getPath(), archiveFile, new BuildMetrics());
+
+        // Code blocks are split into blobs of their own, which posts including the same code share.
+        Set<String> blobs = new HashSet<>(Arrays.asList(blobDirectory.list()));
+        assertTrue(blobs.contains(Utils.getHash(utf8(CODE_BLOCK))));
+    }
+
+    private static Set<String> listFiles(final File directory) throws IOException {
+        final Set<String> paths = new HashSet<>();
+        Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                paths.add(directory.toPath().relativize(file).toString().replace(File.separatorChar, '/'));
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return paths;
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,112 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of parsing include directives with {@link IncludeDirective}.
+ */
+public class IncludeDirectiveTest {
+
+    @Test
+    public void testLineWithoutIncludeTag() {
+        assertNull(IncludeDirective.parse("## Implementation", "README.md", 1));
+        assertNull(IncludeDirective.parse("<!-- a comment -->", "README.md", 1));
+    }
+
+    @Test
+    public void testIncludeCode() {
+        IncludeDirective directive = IncludeDirective.parse("<!-- INCLUDE_CODE: guide/service.bal -->",
+                "README.md", 3);
+        assertFalse(directive.isSegment());
+        assertEquals("guide/service.bal", directive.getFile());
+        assertNull(directive.getSegment());
+        assertFalse(directive.hasLineRange());
+        assertEquals("README.md:3", directive.getLocation());
+    }
+
+    @Test
+    public void testIncludeCodeAttributes() {
+        IncludeDirective directive = IncludeDirective.parse(
+                "  <!--INCLUDE_CODE: { file: guide/service.bal, lines: 5-20 }-->", "README.md", 1);
+        assertEquals("guide/service.bal", directive.getFile());
+        assertTrue(directive.hasLineRange());
+        assertEquals(5, directive.getFirstLine());
+        assertEquals(20, directive.getLastLine());
+    }
+
+    @Test
+    public void testIncludeCodeSegment() {
+        IncludeDirective directive = IncludeDirective.parse(
+                "<!-- INCLUDE_CODE_SEGMENT: { file: guide/service.bal, segment: segment_1 } -->", "README.md", 1);
+        assertTrue(directive.isSegment());
+        assertEquals("guide/service.bal", directive.getFile());
+        assertEquals("segment_1", directive.getSegment());
+        assertFalse(directive.hasLineRange());
+    }
+
+    @Test
+    public void testIncludeCodeSegmentLineRange() {
+        IncludeDirective directive = IncludeDirective.parse(
+                "<!-- INCLUDE_CODE_SEGMENT: { file: a.bal, segment: s, lines: 2-2 } -->", "README.md", 1);
+        assertEquals(2, directive.getFirstLine());
+        assertEquals(2, directive.getLastLine());
+    }
+
+    @Test
+    public void testMalformedDirectives() {
+        assertMalformed("INCLUDE_CODE: a.bal", "first content of a comment");
+        assertMalformed("<!-- note INCLUDE_CODE: a.bal -->", "first content of a comment");
+        assertMalformed("<!-- INCLUDE_CODE: a.bal", "not closed with -->");
+        assertMalformed("<!-- INCLUDE_CODE: -->", "file is not specified");
+        assertMalformed("<!-- INCLUDE_CODE: { file: a.bal -->", "not closed with }");
+        assertMalformed("<!-- INCLUDE_CODE: { file: a.bal } text -->", "not closed with }");
+        assertMalformed("<!-- INCLUDE_CODE: { file a.bal } -->", "key: value format");
+        assertMalformed("<!-- INCLUDE_CODE: { file: a.bal, colour: red } -->", "unknown attribute: colour");
+        assertMalformed("<!-- INCLUDE_CODE: { file: a.bal, segment: s } -->", "only allowed in");
+        assertMalformed("<!-- INCLUDE_CODE_SEGMENT: { file: a.bal } -->", "segment is not specified");
+        assertMalformed("<!-- INCLUDE_CODE_SEGMENT: a.bal -->", "file is not specified");
+    }
+
+    @Test
+    public void testMalformedLineRanges() {
+        assertMalformed("<!-- INCLUDE_CODE: { file: a.bal, lines: 5 } -->", "range of line numbers");
+        assertMalformed("<!-- INCLUDE_CODE: { file: a.bal, lines: 0-3 } -->", "range of line numbers");
+        assertMalformed("<!-- INCLUDE_CODE: { file: a.bal, lines: 5-3 } -->", "range of line numbers");
+        assertMalformed("<!-- INCLUDE_CODE: { file: a.bal, lines: a-b } -->", "range of line numbers");
+    }
+
+    /**
+     * Assert that a line has a malformed include directive, with the location in the error message.
+     */
+    private static void assertMalformed(String line, String message) {
+        try {
+            IncludeDirective.parse(line, "guide/README.md", 7);
+            fail("Expected an error for: " + line);
+        } catch (IncludeDirectiveException e) {
+            assertEquals("guide/README.md:7", e.getLocation());
+            assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina.utils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.wso2.integration.ballerina.constants.Constants.LICENCE_LAST_LINE;
+
+/**
+ * Tests of skipping licence headers of code files with {@link Utils#skipLicenceHeader(Reader, String)} and
+ * {@link Utils#writeCodeWithoutLicenceHeader(File, java.io.Writer)}.
+ */
+public class LicenceHeaderTest {
+    // Size of the buffers of the reader and of writeCodeWithoutLicenceHeader.
+    private static final int BUFFER_SIZE = 8192;
+    private static final String HEADER = "// Copyright (c) 2019 WSO2 Inc.\n//\n" + LICENCE_LAST_LINE;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSkipLicenceHeader() throws IOException {
+        Reader reader = new StringReader(HEADER + "\nimport ballerina/http;\n");
+        Utils.skipLicenceHeader(reader, "service.bal");
+        assertEquals('\n', reader.read());
+        assertEquals('i', reader.read());
+    }
+
+    @Test
+    public void testSkipLicenceHeaderReadOneCharacterAtATime() throws IOException {
+        Reader reader = new OneCharacterReader(new StringReader(HEADER + "code"));
+        Utils.skipLicenceHeader(reader, "service.bal");
+        assertEquals('c', reader.read());
+    }
+
+    @Test
+    public void testMissingLicenceHeader() throws IOException {
+        try {
+            Utils.skipLicenceHeader(new StringReader("import ballerina/http;\n// under the"), "service.bal");
+            fail("Expected an error for a code file without a licence header");
+        } catch (ServiceException e) {
+            assertEquals(true, e.getMessage().contains("service.bal"));
+        }
+    }
+
+    @Test
+    public void testWriteCode() throws IOException {
+        assertEquals("import ballerina/http;\n\nservice hello {\n}",
+                writeCode(HEADER + "\n\n  import ballerina/http;\n\nservice hello {\n}\n\n"));
+    }
+
+    @Test
+    public void testHeaderSplitAcrossBuffers() throws IOException {
+        // Padding the header so that its last line starts before and ends after the end of the first buffer.
+        for (int split = 1; split < LICENCE_LAST_LINE.length(); split += 5) {
+            String header = pad(BUFFER_SIZE - split - 1) + "\n" + LICENCE_LAST_LINE;
+            assertEquals("code", writeCode(header + "\ncode\n"));
+        }
+    }
+
+    @Test
+    public void testCodeAndWhitespaceSplitAcrossBuffers() throws IOException {
+        // Code starting and whitespace held back at the end of the first buffer of the code.
+        StringBuilder code = new StringBuilder("first");
+        while (code.length() < BUFFER_SIZE - 3) {
+            code.append(" x");
+        }
+        code.append("\n \n \n second\n");
+        String expected = code.toString().trim();
+
+        assertEquals(expected, writeCode(HEADER + "\n  " + code + "  \n"));
+        assertEquals(expected, writeCode(HEADER + code));
+    }
+
+    private String writeCode(String content) throws IOException {
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        StringWriter writer = new StringWriter();
+        Utils.writeCodeWithoutLicenceHeader(file, writer);
+        return writer.toString();
+    }
+
+    private static String pad(int length) {
+        StringBuilder padding = new StringBuilder("//");
+        while (padding.length() < length) {
+            padding.append(' ');
+        }
+        return padding.toString();
+    }
+
+    /**
+     * Reader returning at most one character for each read.
+     */
+    private static class OneCharacterReader extends FilterReader {
+        OneCharacterReader(Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            return super.read(buffer, offset, Math.min(length, 1));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of writing line ranges with {@link LineRangeWriter}.
+ */
+public class LineRangeWriterTest {
+    private static final String CODE = "line 1\nline 2\nline 3\nline 4\n";
+
+    @Test
+    public void testMiddleLines() throws IOException {
+        assertEquals("line 2\nline 3", writeRange(CODE, 2, 3));
+    }
+
+    @Test
+    public void testSingleLine() throws IOException {
+        assertEquals("line 1", writeRange(CODE, 1, 1));
+        assertEquals("line 4", writeRange(CODE, 4, 4));
+    }
+
+    @Test
+    public void testLastLineWithoutTerminator() throws IOException {
+        assertEquals("line 2\nline 3", writeRange("line 1\nline 2\nline 3", 2, 3));
+    }
+
+    @Test
+    public void testLinesWrittenInChunks() throws IOException {
+        StringWriter output = new StringWriter();
+        LineRangeWriter writer = new LineRangeWriter(output, 2, 3);
+        // Each character written separately, so that lines span any number of writes.
+        for (char character : CODE.toCharArray()) {
+            writer.write(character);
+        }
+        assertEquals("line 2\nline 3", output.toString());
+        assertEquals(5, writer.getLineCount());
+    }
+
+    @Test
+    public void testLineCountOfShortCode() throws IOException {
+        LineRangeWriter writer = new LineRangeWriter(new StringWriter(), 2, 10);
+        writer.write("line 1\nline 2");
+        // Fewer lines than the last line of the range, which callers report as an error.
+        assertEquals(2, writer.getLineCount());
+    }
+
+    private static String writeRange(String code, int firstLine, int lastLine) throws IOException {
+        StringWriter output = new StringWriter();
+        try (LineRangeWriter writer = new LineRangeWriter(output, firstLine, lastLine)) {
+            writer.write(code);
+        }
+        return output.toString();
+    }
+}
@@ -0,0 +1,65 @@
+// Copyright (c) 2019 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+//
+// WSO2 Inc. licenses this file to you under the Apache License,
+// Version 2.0 (the "License"); you may not use this file except
+// in compliance with the License.
+// You may obtain a copy of the License at
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+
+package org.wso2.integration.ballerina.utils;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of reading lines with their line terminators.
+ */
+public class UtilsTest {
+    private static final String CONTENT = "lf\ncr\rcrlf\r\n\r\r\nlast";
+
+    @Test
+    public void testReadLineWithTerminator() throws IOException {
+        List<String> lines = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new StringReader(CONTENT));
+        String line;
+        while ((line = Utils.readLineWithTerminator(reader)) != null) {
+            lines.add(line);
+        }
+
+        assertEquals(Arrays.asList("lf\n", "cr\r", "crlf\r\n", "\r", "\r\n", "last"), lines);
+    }
+
+    @Test
+    public void testLinesMatchReadLine() throws IOException {
+        List<String> expectedLines = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new StringReader(CONTENT));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            expectedLines.add(line);
+        }
+
+        List<String> lines = new ArrayList<>();
+        reader = new BufferedReader(new StringReader(CONTENT));
+        while ((line = Utils.readLineWithTerminator(reader)) != null) {
+            lines.add(line.substring(0, Utils.getLineEnd(line)));
+        }
+
+        assertEquals(expectedLines, lines);
+    }
+}